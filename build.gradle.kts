@@ -41,7 +41,8 @@ dependencies {
     // Jalali (Persian) calendar calculations (iterate dates, weekday)
     implementation("com.ibm.icu:icu4j:76.1")
     compileOnly("org.projectlombok:lombok")
-    runtimeOnly("org.postgresql:postgresql")
+    // PGConnection for LISTEN (UserChangeListener)
+    implementation("org.postgresql:postgresql")
     annotationProcessor("org.projectlombok:lombok")
 //    testImplementation("org.springframework.boot:spring-boot-starter-actuator-test")
 //    testImplementation("org.springframework.boot:spring-boot-starter-data-jpa-test")
@@ -50,6 +51,13 @@ dependencies {
 //    testImplementation("org.springframework.boot:spring-boot-starter-validation-test")
 //    testImplementation("org.springframework.boot:spring-boot-starter-webmvc-test")
 //    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+    testImplementation("org.springframework.boot:spring-boot-starter-test")
+    testImplementation("org.springframework.boot:spring-boot-testcontainers")
+    testImplementation("org.testcontainers:junit-jupiter")
+    testImplementation("org.testcontainers:postgresql")
+    // counts JDBC statements/batches in persistence tests
+    testImplementation("net.ttddyy:datasource-proxy:1.10.1")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 tasks.withType<Test> {
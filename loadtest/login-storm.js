@@ -0,0 +1,81 @@
+// Shift-start login storm (k6): https://k6.io
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e USERS=users.csv loadtest/login-storm.js
+//
+// users.csv: one "email,password" per line (test accounts).
+// Scenario "logins" replays a shift start: every account logs in within a few minutes, from one address
+// (office NAT). Scenario "tasks" is the already logged-in part of the office polling their task lists meanwhile.
+// Pass criteria (thresholds): task list latency stays in budget during the storm, no 5xx, and logins are
+// never throttled (429) at this rate; 429 on login only comes from BoundedPasswordEncoder when the hash pool
+// is saturated, which is counted separately.
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+import { SharedArray } from 'k6/data';
+
+const BASE = __ENV.BASE_URL || 'http://localhost:8080';
+const users = new SharedArray('users', () =>
+    open(__ENV.USERS || 'users.csv').split('\n').filter(l => l.trim()).map(l => {
+        const [email, password] = l.split(',');
+        return { email: email.trim(), password: password.trim() };
+    }));
+
+const loginRejected = new Counter('login_rejected_429');
+
+export const options = {
+    scenarios: {
+        logins: {
+            executor: 'ramping-arrival-rate',
+            exec: 'login',
+            startRate: 1,
+            timeUnit: '1s',
+            preAllocatedVUs: 200,
+            stages: [
+                { target: 20, duration: '1m' },
+                { target: 20, duration: '3m' },
+                { target: 0, duration: '1m' },
+            ],
+        },
+        tasks: {
+            executor: 'constant-vus',
+            exec: 'pollTasks',
+            vus: 50,
+            duration: '5m',
+        },
+    },
+    thresholds: {
+        'http_req_duration{scenario:tasks}': ['p(95)<300', 'p(99)<800'],
+        'http_req_failed{scenario:tasks}': ['rate<0.01'],
+        'checks{scenario:logins}': ['rate>0.99'],
+    },
+};
+
+function loginAs(u) {
+    return http.post(`${BASE}/api/auth/login`, JSON.stringify(u), {
+        headers: { 'Content-Type': 'application/json' },
+    });
+}
+
+export function login() {
+    const u = users[Math.floor(Math.random() * users.length)];
+    const res = loginAs(u);
+    if (res.status === 429) loginRejected.add(1);
+    check(res, { 'login ok': r => r.status === 200 });
+}
+
+export function setup() {
+    // token mode: reuse one access token per polling VU; session mode: the cookie jar keeps the session
+    return users.slice(0, 50).map(u => {
+        const res = loginAs(u);
+        return res.status === 200 && res.body ? (res.json('accessToken') || null) : null;
+    });
+}
+
+export function pollTasks(tokens) {
+    const token = tokens[(__VU - 1) % tokens.length];
+    if (!token && __ITER === 0) loginAs(users[(__VU - 1) % users.length]);
+    const res = http.get(`${BASE}/api/me/tasks?type=assigned&limit=50`, {
+        headers: token ? { Authorization: `Bearer ${token}` } : {},
+    });
+    check(res, { 'tasks ok': r => r.status === 200 || r.status === 304 });
+}
@@ -1,10 +1,10 @@
 package com.taskchi.taskchi.auth;
 
 import com.taskchi.taskchi.users.User;
-import com.taskchi.taskchi.users.UserRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.NotBlank;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -13,6 +13,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.http.HttpStatus;
 
 import java.util.List;
 
@@ -21,30 +23,76 @@ import java.util.List;
 public class AuthController {
 
     private final AuthenticationManager authenticationManager;
-    private final UserRepository userRepository;
+    private final CurrentUser currentUser;
+    private final UserIdentityCache identities;
+    private final AuthTokens tokens;
+    private final LoginThrottle throttle;
+    private final boolean tokenMode;
 
     // مهم: این ریپازیتوری کانتکست را داخل سشن ذخیره می‌کند
     private final SecurityContextRepository securityContextRepository =
             new HttpSessionSecurityContextRepository();
 
-    public AuthController(AuthenticationManager authenticationManager, UserRepository userRepository) {
+    public AuthController(AuthenticationManager authenticationManager, CurrentUser currentUser,
+                          UserIdentityCache identities, AuthTokens tokens, LoginThrottle throttle,
+                          @Value("${taskchi.auth.mode:session}") String authMode) {
         this.authenticationManager = authenticationManager;
-        this.userRepository = userRepository;
+        this.currentUser = currentUser;
+        this.identities = identities;
+        this.tokens = tokens;
+        this.throttle = throttle;
+        this.tokenMode = "token".equals(authMode);
     }
 
     public record LoginRequest(@NotBlank String email, @NotBlank String password) {}
 
+    public record TokenResponse(String accessToken, String refreshToken, long expiresIn) {}
+
+    /**
+     * session mode: sets the session cookie, empty body.
+     * token mode: returns access + refresh tokens, no session.
+     */
     @PostMapping("/login")
-    public void login(@RequestBody LoginRequest req, HttpServletRequest request, HttpServletResponse response) {
+    public TokenResponse login(@RequestBody LoginRequest req, HttpServletRequest request, HttpServletResponse response) {
+        // 429 before any DB lookup or BCrypt work.
+        // getRemoteAddr() is the client's address once resolved from X-Forwarded-For of a trusted proxy (application.yml)
+        throttle.check(req.email(), request.getRemoteAddr());
+
         Authentication auth = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(req.email(), req.password())
         );
 
+        if (tokenMode) {
+            User u = identities.find(auth.getName()).orElseThrow();
+            var issued = tokens.issue(u);
+            return new TokenResponse(issued.accessToken(), issued.refreshToken(), issued.expiresIn());
+        }
+
         SecurityContext context = SecurityContextHolder.createEmptyContext();
         context.setAuthentication(auth);
         SecurityContextHolder.setContext(context);
 
         securityContextRepository.saveContext(context, request, response);
+        return null;
+    }
+
+    public record RefreshRequest(@NotBlank String refreshToken) {}
+
+    /**
+     * token mode: new access + refresh pair. Re-reads the user (through the identity cache),
+     * so a deactivated user or a reset password stops the refresh chain.
+     */
+    @PostMapping("/refresh")
+    public TokenResponse refresh(@RequestBody RefreshRequest req) {
+        if (!tokenMode) throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+
+        AuthTokens.Claims c = tokens.verify(req.refreshToken(), "r");
+        User u = c == null ? null : identities.find(c.email()).orElse(null);
+        if (u == null || !u.isActive() || !u.getId().equals(c.userId()) || !tokens.stampMatches(c, u)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+        }
+        var issued = tokens.issue(u);
+        return new TokenResponse(issued.accessToken(), issued.refreshToken(), issued.expiresIn());
     }
 
     @PostMapping("/logout")
@@ -61,7 +109,7 @@ public class AuthController {
         if (authentication == null) return null;
 
         String email = authentication.getName();
-        User u = userRepository.findByEmail(email).orElse(null);
+        User u = currentUser.findUser(authentication).orElse(null);
         if (u == null) return null;
 
         return new MeResponse(
@@ -0,0 +1,138 @@
+package com.taskchi.taskchi.auth;
+
+import com.taskchi.taskchi.common.Role;
+import com.taskchi.taskchi.users.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * HMAC-SHA256 signed tokens for the stateless auth mode (taskchi.auth.mode=token).
+ * Format: base64url(payload) + "." + base64url(hmac(payload)), payload = "v1|type|userId|role|iat|exp|stamp|base64url(email)".
+ *
+ * - access  (type a): short-lived, verified by TokenAuthenticationFilter with no DB or session lookup.
+ * - refresh (type r): long-lived, only accepted by /api/auth/refresh, which re-reads the user; its stamp is derived
+ *   from the password hash, so a password reset invalidates every refresh token issued before it.
+ *
+ * Revocation: revoke(userId) rejects that user's tokens issued up to now on this node immediately;
+ * on other nodes an access token lives at most taskchi.auth.token.access-ttl, and refresh re-checks the user.
+ * All nodes must share taskchi.auth.token.secret.
+ */
+@Component
+public class AuthTokens {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthTokens.class);
+    private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder B64D = Base64.getUrlDecoder();
+
+    public record Claims(String type, Long userId, Role role, long issuedAt, long expiresAt, String stamp, String email) {}
+
+    public record Issued(String accessToken, String refreshToken, long expiresIn) {}
+
+    private final SecretKeySpec key;
+    private final Duration accessTtl;
+    private final Duration refreshTtl;
+    // userId -> tokens with iat <= this (epoch seconds) are rejected
+    private final ConcurrentHashMap<Long, Long> revokedUntil = new ConcurrentHashMap<>();
+
+    public AuthTokens(@Value("${taskchi.auth.token.secret:}") String secret,
+                      @Value("${taskchi.auth.token.access-ttl:5m}") Duration accessTtl,
+                      @Value("${taskchi.auth.token.refresh-ttl:14d}") Duration refreshTtl) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            log.warn("taskchi.auth.token.secret is not set; using a random key (tokens die with this process and are not accepted by other nodes)");
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, "HmacSHA256");
+        this.accessTtl = accessTtl;
+        this.refreshTtl = refreshTtl;
+    }
+
+    public Issued issue(User u) {
+        long now = Instant.now().getEpochSecond();
+        String access = sign("a", u, now, now + accessTtl.toSeconds(), "-");
+        String refresh = sign("r", u, now, now + refreshTtl.toSeconds(), stamp(u));
+        return new Issued(access, refresh, accessTtl.toSeconds());
+    }
+
+    /**
+     * Signature, expiry, type and revocation; null if any of them fails.
+     */
+    public Claims verify(String token, String expectedType) {
+        if (token == null) return null;
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) return null;
+        try {
+            byte[] payload = B64D.decode(token.substring(0, dot));
+            byte[] sig = B64D.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(sig, hmac(payload))) return null;
+
+            String[] f = new String(payload, StandardCharsets.UTF_8).split("\\|", -1);
+            if (f.length != 8 || !"v1".equals(f[0]) || !expectedType.equals(f[1])) return null;
+
+            Claims c = new Claims(f[1], Long.parseLong(f[2]), Role.valueOf(f[3]), Long.parseLong(f[4]),
+                    Long.parseLong(f[5]), f[6], new String(B64D.decode(f[7]), StandardCharsets.UTF_8));
+            if (c.expiresAt() <= Instant.now().getEpochSecond()) return null;
+            Long revoked = revokedUntil.get(c.userId());
+            if (revoked != null && c.issuedAt() <= revoked) return null;
+            return c;
+        } catch (IllegalArgumentException e) { // bad base64, number or role
+            return null;
+        }
+    }
+
+    /**
+     * Refresh tokens of u issued before its last password change don't match any more.
+     */
+    public boolean stampMatches(Claims refresh, User u) {
+        return MessageDigest.isEqual(
+                refresh.stamp().getBytes(StandardCharsets.UTF_8),
+                stamp(u).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Rejects every token of userId issued up to now (this node). Called on deactivate / delete / role or password change.
+     */
+    public void revoke(Long userId) {
+        // tokens carry whole seconds: a token issued later in this same second is rejected too, which is the safe side
+        revokedUntil.merge(userId, Instant.now().getEpochSecond(), Math::max);
+    }
+
+    private String sign(String type, User u, long iat, long exp, String stamp) {
+        String payload = String.join("|", "v1", type, String.valueOf(u.getId()), u.getRole().name(),
+                String.valueOf(iat), String.valueOf(exp), stamp,
+                B64.encodeToString(u.getEmail().getBytes(StandardCharsets.UTF_8)));
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        return B64.encodeToString(bytes) + "." + B64.encodeToString(hmac(bytes));
+    }
+
+    private String stamp(User u) {
+        byte[] h = hmac(("pw|" + u.getPasswordHash()).getBytes(StandardCharsets.UTF_8));
+        return B64.encodeToString(h).substring(0, 16);
+    }
+
+    private byte[] hmac(byte[] data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac.doFinal(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.taskchi.taskchi.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs matches() (the login path) on a small dedicated pool instead of the calling Tomcat thread, so a login burst
+ * can burn at most `threads` cores and everything else keeps its CPU. encode() runs on the caller.
+ * Admission control: at most `queueCapacity` hashes wait; beyond that, or after `maxWait`, the caller gets 429 at once.
+ *
+ * Metrics: taskchi.auth.password.hash (timer, hash time only), taskchi.auth.password.wait (timer, queue time),
+ * taskchi.auth.password.queue (gauge), taskchi.auth.password.rejected (counter).
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitMillis;
+
+    private final Timer hashTimer;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long maxWaitMillis,
+                                  MeterRegistry meters) {
+        this.delegate = delegate;
+        this.maxWaitMillis = maxWaitMillis;
+
+        AtomicInteger n = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.hashTimer = Timer.builder("taskchi.auth.password.hash").register(meters);
+        this.waitTimer = Timer.builder("taskchi.auth.password.wait").register(meters);
+        this.rejected = Counter.builder("taskchi.auth.password.rejected").register(meters);
+        Gauge.builder("taskchi.auth.password.queue", executor, e -> e.getQueue().size()).register(meters);
+    }
+
+    // admin user creation / password reset: rare, and must not get a 429 because a login burst filled the pool
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hashTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> work) {
+        long submitted = System.nanoTime();
+        Future<T> f;
+        try {
+            f = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                return hashTimer.recordCallable(work);
+            });
+        } catch (RejectedExecutionException e) {
+            throw busy();
+        }
+
+        try {
+            return f.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            f.cancel(false); // still queued -> never runs
+            throw busy();
+        } catch (InterruptedException e) {
+            f.cancel(false);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private ResponseStatusException busy() {
+        rejected.increment();
+        return new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many logins in progress, retry shortly");
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -1,20 +1,42 @@
 package com.taskchi.taskchi.auth;
 
 import com.taskchi.taskchi.users.User;
-import com.taskchi.taskchi.users.UserRepository;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
 
 @Component
 public class CurrentUser {
-    private final UserRepository userRepository;
 
-    public CurrentUser(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    // per-request memo: one request never looks the same user up twice
+    private static final String REQUEST_ATTR = CurrentUser.class.getName() + ".user";
+
+    private final UserIdentityCache identities;
+
+    public CurrentUser(UserIdentityCache identities) {
+        this.identities = identities;
     }
 
     public User requireUser(Authentication authentication) {
+        return findUser(authentication).orElseThrow();
+    }
+
+    public Optional<User> findUser(Authentication authentication) {
+        if (authentication == null) return Optional.empty();
         String email = authentication.getName();
-        return userRepository.findByEmail(email).orElseThrow();
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) return identities.find(email);
+
+        if (request.getAttribute(REQUEST_ATTR, RequestAttributes.SCOPE_REQUEST) instanceof User u
+                && email.equals(u.getEmail())) {
+            return Optional.of(u);
+        }
+        Optional<User> found = identities.find(email);
+        found.ifPresent(u -> request.setAttribute(REQUEST_ATTR, u, RequestAttributes.SCOPE_REQUEST));
+        return found;
     }
 }
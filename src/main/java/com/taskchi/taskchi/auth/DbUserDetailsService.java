@@ -1,7 +1,6 @@
 package com.taskchi.taskchi.auth;
 
 import com.taskchi.taskchi.users.User;
-import com.taskchi.taskchi.users.UserRepository;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
@@ -11,15 +10,15 @@ import java.util.List;
 @Service
 public class DbUserDetailsService implements UserDetailsService {
 
-    private final UserRepository userRepository;
+    private final UserIdentityCache identities;
 
-    public DbUserDetailsService(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public DbUserDetailsService(UserIdentityCache identities) {
+        this.identities = identities;
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User u = userRepository.findByEmail(email)
+        User u = identities.find(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
         if (!u.isActive()) throw new UsernameNotFoundException("User is inactive");
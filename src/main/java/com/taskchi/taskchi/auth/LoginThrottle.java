@@ -0,0 +1,102 @@
+package com.taskchi.taskchi.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token buckets for POST /api/auth/login, checked before any password hashing:
+ * one per email (guessing one account) and one per client IP (stuffing many accounts).
+ * Every attempt takes a token; an empty bucket means 429 without touching the DB or BCrypt.
+ * Node-local; with N nodes behind a balancer the effective limit is up to N times higher.
+ *
+ * The per-IP bucket is off by default (ip-burst=0): behind an office NAT a whole shift logs in from one
+ * address. Only enable it with the balancer listed in server.tomcat.remoteip.internal-proxies (application.yml),
+ * so the IP is the client's and not the balancer's, and size it above one site's login burst.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final class Bucket {
+        private final double capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long last;
+
+        Bucket(double capacity, double refillPerSecond, long now) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerSecond / 1_000_000_000d;
+            this.tokens = capacity;
+            this.last = now;
+        }
+
+        synchronized boolean tryTake(long now) {
+            refill(now);
+            if (tokens < 1) return false;
+            tokens -= 1;
+            return true;
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - last) * refillPerNano);
+            last = now;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Bucket> byEmail = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Bucket> byIp = new ConcurrentHashMap<>();
+
+    private final int emailCapacity;
+    private final double emailRefillPerSecond;
+    private final int ipCapacity;
+    private final double ipRefillPerSecond;
+    private final Counter throttled;
+
+    public LoginThrottle(@Value("${taskchi.auth.login.email-burst:5}") int emailCapacity,
+                         @Value("${taskchi.auth.login.email-per-minute:5}") double emailPerMinute,
+                         @Value("${taskchi.auth.login.ip-burst:0}") int ipCapacity,
+                         @Value("${taskchi.auth.login.ip-per-minute:600}") double ipPerMinute,
+                         MeterRegistry meters) {
+        this.emailCapacity = emailCapacity;
+        this.emailRefillPerSecond = emailPerMinute / 60d;
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerSecond = ipPerMinute / 60d;
+        this.throttled = Counter.builder("taskchi.auth.login.throttled").register(meters);
+    }
+
+    public void check(String email, String ip) {
+        long now = System.nanoTime();
+        boolean ok = (ipCapacity <= 0 || take(byIp, ip == null ? "-" : ip, ipCapacity, ipRefillPerSecond, now))
+                && take(byEmail, email == null ? "" : email.trim().toLowerCase(Locale.ROOT),
+                        emailCapacity, emailRefillPerSecond, now);
+        if (!ok) {
+            throttled.increment();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts, retry later");
+        }
+    }
+
+    private static boolean take(ConcurrentHashMap<String, Bucket> buckets, String key, int capacity,
+                                double refillPerSecond, long now) {
+        return buckets.computeIfAbsent(key, k -> new Bucket(capacity, refillPerSecond, now)).tryTake(now);
+    }
+
+    // full buckets carry no state: drop them so the maps stay as small as the set of recent callers
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdle() {
+        long now = System.nanoTime();
+        byEmail.values().removeIf(b -> b.isFull(now));
+        byIp.values().removeIf(b -> b.isFull(now));
+    }
+}
@@ -0,0 +1,45 @@
+package com.taskchi.taskchi.auth;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Token mode only: "Authorization: Bearer <access token>" -> authenticated principal (name = email, ROLE_x).
+ * No DB and no session; an invalid or expired token just leaves the request anonymous (-> 401).
+ * Not a bean on purpose: SecurityConfig adds it to the chain, so it isn't registered as a servlet filter too.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private final AuthTokens tokens;
+
+    public TokenAuthenticationFilter(AuthTokens tokens) {
+        this.tokens = tokens;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            AuthTokens.Claims c = tokens.verify(header.substring(7).trim(), "a");
+            if (c != null) {
+                var auth = new UsernamePasswordAuthenticationToken(
+                        c.email(), null, List.of(new SimpleGrantedAuthority("ROLE_" + c.role().name())));
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(auth);
+                SecurityContextHolder.setContext(context);
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
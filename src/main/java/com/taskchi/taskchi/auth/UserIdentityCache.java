@@ -0,0 +1,100 @@
+package com.taskchi.taskchi.auth;
+
+import com.taskchi.taskchi.users.User;
+import com.taskchi.taskchi.users.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Cross-request cache of the logged-in user, keyed by email (the principal name), so that
+ * CurrentUser / login / /api/auth/me don't run findByEmail on every call.
+ *
+ * - Bounded LRU (taskchi.auth.identity-cache.max-size) with a short TTL (taskchi.auth.identity-cache.ttl):
+ *   the TTL is what bounds staleness for changes made on other nodes.
+ * - AdminUserController evicts a user on every change to it (evict(id)), so on this node
+ *   deactivation / password reset / role change take effect immediately.
+ * - Values are detached copies with only the scalar columns (no manager / subordinates).
+ *   Fine as the "me" of a request and as a reference in setCreatedBy(me) etc.; never save() them.
+ */
+@Component
+public class UserIdentityCache {
+
+    private record Entry(User user, long loadedAt) {}
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+
+    public UserIdentityCache(UserRepository userRepository,
+                             @Value("${taskchi.auth.identity-cache.ttl:30s}") Duration ttl,
+                             @Value("${taskchi.auth.identity-cache.max-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public Optional<User> find(String email) {
+        if (email == null) return Optional.empty();
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry e = entries.get(email);
+            if (e != null && now - e.loadedAt() < ttlNanos) return Optional.of(e.user());
+        }
+
+        // loaded outside the lock; two concurrent misses for the same email both query, which is harmless
+        Optional<User> loaded = userRepository.findByEmail(email).map(UserIdentityCache::detachedCopy);
+        loaded.ifPresent(u -> {
+            synchronized (entries) {
+                entries.put(email, new Entry(u, now));
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Drops the user now and, inside a transaction, once more after commit
+     * (a request could reload the old row between the change and the commit).
+     */
+    public void evict(Long userId) {
+        evictNow(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(userId);
+                }
+            });
+        }
+    }
+
+    private void evictNow(Long userId) {
+        // by id, not email: the change may have been the email itself
+        synchronized (entries) {
+            entries.values().removeIf(e -> Objects.equals(e.user().getId(), userId));
+        }
+    }
+
+    private static User detachedCopy(User u) {
+        return User.builder()
+                .id(u.getId())
+                .email(u.getEmail())
+                .fullName(u.getFullName())
+                .passwordHash(u.getPasswordHash())
+                .role(u.getRole())
+                .active(u.isActive())
+                .build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.taskchi.taskchi.common;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated list. next == null means there are no more rows.
+ */
+public record CursorPage<T>(List<T> items, String next) {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    public static int clampLimit(int limit) {
+        if (limit <= 0) return DEFAULT_LIMIT;
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * rows must be fetched with limit + 1, so the extra row tells us whether a next page exists.
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int limit, Function<E, KeysetCursor> position, Function<E, T> mapper) {
+        boolean hasMore = rows.size() > limit;
+        List<E> page = hasMore ? rows.subList(0, limit) : rows;
+        String next = hasMore ? position.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorPage<>(page.stream().map(mapper).toList(), next);
+    }
+}
@@ -1,5 +1,7 @@
 package com.taskchi.taskchi.common;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -12,4 +14,11 @@ public class GlobalExceptionHandler {
     public ResponseEntity<?> badRequest(IllegalArgumentException ex) {
         return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
     }
+
+    // concurrent update of a @Version entity: the client's copy is stale
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<?> staleVersion(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(Map.of("error", "Resource was modified concurrently, reload and retry"));
+    }
 }
@@ -0,0 +1,44 @@
+package com.taskchi.taskchi.common;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * If-Match handling for entities with a @Version column.
+ * The ETag of such an entity is just its quoted version number.
+ */
+public final class IfMatch {
+
+    private IfMatch() {
+    }
+
+    public static String etag(Long version) {
+        return "\"" + (version == null ? 0 : version) + "\"";
+    }
+
+    /**
+     * No header (or "*") => no precondition. Otherwise one of the listed tags must equal the current version,
+     * else 412. Accepts 3, "3" and W/"3".
+     */
+    public static void check(String ifMatch, Long currentVersion) {
+        if (ifMatch == null || ifMatch.isBlank()) return;
+        String current = Long.toString(currentVersion == null ? 0 : currentVersion);
+        for (String tag : ifMatch.split(",")) {
+            String v = tag.trim();
+            if (v.equals("*")) return;
+            if (v.startsWith("W/")) v = v.substring(2);
+            if (v.length() >= 2 && v.startsWith("\"") && v.endsWith("\"")) v = v.substring(1, v.length() - 1);
+            if (v.equals(current)) return;
+        }
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Resource was modified (version is " + current + ")");
+    }
+
+    /**
+     * For conditional UPDATEs after check(): the version the update must still find (the checked one),
+     * or null when there is no precondition.
+     */
+    public static Long expected(String ifMatch, Long checkedVersion) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) return null;
+        return checkedVersion;
+    }
+}
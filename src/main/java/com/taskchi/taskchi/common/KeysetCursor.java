@@ -0,0 +1,34 @@
+package com.taskchi.taskchi.common;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position in a list ordered by (createdAt desc, id desc).
+ * Sent to clients as an opaque base64url string; clients must not parse it.
+ */
+public record KeysetCursor(Instant createdAt, long id) {
+
+    /** Position before the first row of any list (newer than anything stored). */
+    public static final KeysetCursor FIRST = new KeysetCursor(Instant.parse("9999-12-31T00:00:00Z"), Long.MAX_VALUE);
+
+    public String encode() {
+        String raw = createdAt.toString() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * null/blank => FIRST
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return FIRST;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new KeysetCursor(Instant.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.taskchi.taskchi.common;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * An in-memory aggregate (counters) that is kept up to date by deltas applied after commit and
+ * periodically rebuilt from the database, without losing or double-counting the deltas that commit
+ * while a rebuild query runs.
+ *
+ * Each delta carries the id of the transaction that wrote it (txid_current()). The rebuild reads the data and
+ * txid_current_snapshot() in one REPEATABLE READ transaction; deltas applied during the rebuild are recorded and,
+ * at the swap, replayed on the fresh state only if their transaction is not visible in that snapshot
+ * (the query already counted the others).
+ * A delta recorded without a transaction id (applied outside a transaction) is replayed: it may count twice
+ * until the next rebuild.
+ */
+public final class RebuildableState<M> {
+
+    private record Pending<M>(Long txid, Consumer<M> delta) {}
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate snapshotTx;
+    private final Object lock = new Object();
+    private final Object rebuildLock = new Object();
+
+    private volatile M current;
+    // what `current` was loaded from; null = not loaded from the database yet
+    private Snapshot currentSnapshot;
+    // non-null while a rebuild runs
+    private List<Pending<M>> recording;
+
+    public RebuildableState(JdbcTemplate jdbc, PlatformTransactionManager txManager, M initial) {
+        this.jdbc = jdbc;
+        this.snapshotTx = new TransactionTemplate(txManager);
+        this.snapshotTx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTx.setReadOnly(true);
+        this.snapshotTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.current = initial;
+    }
+
+    public M current() {
+        return current;
+    }
+
+    /**
+     * Applies delta to the current state; after commit when called inside a transaction.
+     */
+    public void apply(Consumer<M> delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyNow(null, delta);
+            return;
+        }
+        Long txid = jdbc.queryForObject("select txid_current()", Long.class);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applyNow(txid, delta);
+            }
+        });
+    }
+
+    private void applyNow(Long txid, Consumer<M> delta) {
+        synchronized (lock) {
+            // a commit the last rebuild already saw (its afterCommit ran late) is in current already
+            if (txid == null || currentSnapshot == null || !currentSnapshot.sees(txid)) delta.accept(current);
+            if (recording != null) recording.add(new Pending<>(txid, delta));
+        }
+    }
+
+    /**
+     * load runs inside the snapshot transaction and returns the fresh state.
+     */
+    public M rebuild(Supplier<M> load) {
+        synchronized (rebuildLock) {
+            synchronized (lock) {
+                recording = new ArrayList<>();
+            }
+            try {
+                String[] snapshot = new String[1];
+                M fresh = snapshotTx.execute(s -> {
+                    snapshot[0] = jdbc.queryForObject("select txid_current_snapshot()::text", String.class);
+                    return load.get();
+                });
+                Snapshot snap = Snapshot.parse(snapshot[0]);
+                synchronized (lock) {
+                    for (Pending<M> p : recording) {
+                        if (p.txid() == null || !snap.sees(p.txid())) p.delta().accept(fresh);
+                    }
+                    current = fresh;
+                    currentSnapshot = snap;
+                    return fresh;
+                }
+            } finally {
+                synchronized (lock) {
+                    recording = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * txid_snapshot text form: xmin:xmax:xip1,xip2,...
+     */
+    private record Snapshot(long xmin, long xmax, Set<Long> inProgress) {
+        static Snapshot parse(String s) {
+            String[] parts = s.split(":", -1);
+            Set<Long> xip = new HashSet<>();
+            if (parts.length > 2 && !parts[2].isEmpty()) {
+                for (String x : parts[2].split(",")) xip.add(Long.parseLong(x));
+            }
+            return new Snapshot(Long.parseLong(parts[0]), Long.parseLong(parts[1]), xip);
+        }
+
+        boolean sees(long txid) {
+            if (txid < xmin) return true;
+            if (txid >= xmax) return false;
+            return !inProgress.contains(txid);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.taskchi.taskchi.common;
+
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * LISTENs on UserChangeVersions.CHANNEL and applies the bumps other nodes commit, so their writes
+ * stop our tags from matching too.
+ *
+ * - One pooled connection is held for the life of the node, on a daemon thread.
+ * - After (re)connecting every tag is invalidated once: notifications sent while we weren't
+ *   listening are lost.
+ */
+@Component
+public class UserChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(UserChangeListener.class);
+
+    private final DataSource dataSource;
+    private final UserChangeVersions versions;
+    private final long retryMillis;
+
+    private volatile boolean running = true;
+    private Thread thread;
+
+    public UserChangeListener(DataSource dataSource, UserChangeVersions versions,
+                              @Value("${taskchi.list-versions.listen-retry-ms:5000}") long retryMillis) {
+        this.dataSource = dataSource;
+        this.versions = versions;
+        this.retryMillis = retryMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        thread = new Thread(this::loop, "list-versions-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (thread != null) thread.interrupt();
+    }
+
+    private void loop() {
+        while (running) {
+            try (Connection con = dataSource.getConnection()) {
+                con.setAutoCommit(true);
+                try (Statement st = con.createStatement()) {
+                    st.execute("listen " + UserChangeVersions.CHANNEL);
+                }
+                versions.invalidateAll();
+                PGConnection pg = con.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] batch = pg.getNotifications(10_000);
+                    if (batch == null) continue;
+                    for (PGNotification n : batch) versions.applyRemote(n.getParameter());
+                }
+            } catch (SQLException e) {
+                if (!running) return;
+                log.warn("List version listener lost its connection, retrying in {} ms: {}", retryMillis, e.getMessage());
+            }
+            try {
+                Thread.sleep(retryMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+}
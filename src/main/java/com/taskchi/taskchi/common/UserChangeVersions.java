@@ -0,0 +1,184 @@
+package com.taskchi.taskchi.common;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory "something in my lists changed" counter per user, used as a weak ETag by the
+ * polled list endpoints (tasks, notifications, meetings). Every write that can change what a user
+ * sees in those lists must touch that user. etag() never touches the database.
+ *
+ * - The boot epoch is part of the tag, so a restart (counters lost) never yields a matching tag.
+ *   Tags are per node: a poll that lands on another node just gets one 200 and that node's tag.
+ * - touchAll() is for changes that may show up in anyone's list (e.g. a user's name).
+ * - Inside a transaction the local bump happens after commit; bumping earlier would let a poll that
+ *   still reads the old rows get the new tag and keep serving stale data.
+ * - Other nodes learn about a write through pg_notify on CHANNEL, sent from the writing transaction
+ *   (Postgres delivers it only if that transaction commits) and applied by UserChangeListener.
+ */
+@Component
+public class UserChangeVersions {
+
+    static final String CHANNEL = "taskchi_list_versions";
+    // payload = "<node>|*" or "<node>|id,id,..."; NOTIFY payloads must stay under 8000 bytes
+    private static final int MAX_PAYLOAD = 7500;
+    private static final String ALL = "*";
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong global = new AtomicLong();
+    private final ConcurrentHashMap<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    private final JdbcTemplate jdbc;
+
+    public UserChangeVersions(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public String etag(Long userId) {
+        AtomicLong v = versions.get(userId);
+        return "W/\"" + epoch + "-" + global.get() + "-" + userId + "-" + (v == null ? 0 : v.get()) + "\"";
+    }
+
+    public void touch(Long... userIds) {
+        touch(Arrays.asList(userIds));
+    }
+
+    public void touch(Collection<Long> userIds) {
+        Pending p = new Pending();
+        for (Long id : userIds) {
+            if (id != null) p.ids.add(id);
+        }
+        if (!p.ids.isEmpty()) record(p);
+    }
+
+    public void touchAll() {
+        Pending p = new Pending();
+        p.all = true;
+        record(p);
+    }
+
+    /**
+     * Bumps announced by another node (UserChangeListener); our own come back too and are skipped.
+     */
+    void applyRemote(String payload) {
+        int bar = payload.indexOf('|');
+        if (bar < 0 || payload.substring(0, bar).equals(epoch)) return;
+        String body = payload.substring(bar + 1);
+        if (body.equals(ALL)) {
+            global.incrementAndGet();
+            return;
+        }
+        for (String id : body.split(",")) {
+            try {
+                bump(Long.parseLong(id));
+            } catch (NumberFormatException ignored) {
+                // malformed payload: ignore
+            }
+        }
+    }
+
+    /**
+     * Missed notifications (listener connection lost) could hide any change: invalidate every tag.
+     */
+    void invalidateAll() {
+        global.incrementAndGet();
+    }
+
+    private void bump(Long userId) {
+        versions.computeIfAbsent(userId, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    private static final class Pending {
+        final Set<Long> ids = new TreeSet<>();
+        boolean all;
+
+        void add(Pending other) {
+            ids.addAll(other.ids);
+            all |= other.all;
+        }
+    }
+
+    private void record(Pending p) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            announce(p);
+            applyLocal(p);
+            return;
+        }
+        current().add(p);
+    }
+
+    // bumps of the current transaction, collected so one NOTIFY covers them all
+    private Pending current() {
+        Pending p = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (p != null) return p;
+
+        Pending collected = new Pending();
+        TransactionSynchronizationManager.bindResource(this, collected);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                announce(collected);
+            }
+
+            @Override
+            public void afterCommit() {
+                applyLocal(collected);
+            }
+
+            // a REQUIRES_NEW transaction in between collects its own set
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(UserChangeVersions.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(UserChangeVersions.this, collected);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(UserChangeVersions.this);
+            }
+        });
+        return collected;
+    }
+
+    private void applyLocal(Pending p) {
+        if (p.all) global.incrementAndGet();
+        p.ids.forEach(this::bump);
+    }
+
+    private void announce(Pending p) {
+        List<String> payloads = new ArrayList<>();
+        if (p.all) {
+            payloads.add(epoch + "|" + ALL);
+        } else {
+            StringBuilder sb = new StringBuilder();
+            for (Long id : p.ids) {
+                if (sb.length() > MAX_PAYLOAD) {
+                    payloads.add(epoch + "|" + sb);
+                    sb.setLength(0);
+                }
+                if (!sb.isEmpty()) sb.append(',');
+                sb.append(id);
+            }
+            if (!sb.isEmpty()) payloads.add(epoch + "|" + sb);
+        }
+        for (String payload : payloads) {
+            jdbc.queryForObject("select pg_notify(?, ?)", Object.class, CHANNEL, payload);
+        }
+    }
+}
@@ -1,13 +1,20 @@
 package com.taskchi.taskchi.config;
 
+import com.taskchi.taskchi.auth.AuthTokens;
+import com.taskchi.taskchi.auth.BoundedPasswordEncoder;
+import com.taskchi.taskchi.auth.TokenAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 import org.springframework.web.cors.*;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -21,8 +28,29 @@ import java.util.List;
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    /**
+     * session (default): login stores the SecurityContext in the HttpSession (cookie + CSRF token).
+     * token: stateless, "Authorization: Bearer" access tokens from AuthTokens; no session, so no CSRF either.
+     */
+    @Value("${taskchi.auth.mode:session}")
+    private String authMode;
+
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, AuthTokens tokens) throws Exception {
+
+        if ("token".equals(authMode)) {
+            http
+                    .cors(Customizer.withDefaults())
+                    .csrf(csrf -> csrf.disable())
+                    .sessionManagement(s -> s.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                    .addFilterBefore(new TokenAuthenticationFilter(tokens), UsernamePasswordAuthenticationFilter.class)
+                    .authorizeHttpRequests(auth -> auth
+                            .requestMatchers("/api/auth/login", "/api/auth/refresh", "/api/auth/me").permitAll()
+                            .requestMatchers("/actuator/health").permitAll()
+                            .anyRequest().authenticated()
+                    );
+            return http.build();
+        }
 
         CsrfTokenRequestAttributeHandler requestHandler = new CsrfTokenRequestAttributeHandler();
         // مهم: به جای XOR handler پیش‌فرض، این باعث میشه توکن خام هدر/کوکی قبول بشه
@@ -48,9 +76,17 @@ public class SecurityConfig {
     }
 
 
+    /**
+     * Login password checks on their own bounded pool (see BoundedPasswordEncoder): by default half the cores,
+     * 64 waiting hashes, 2s max wait; beyond that login answers 429.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meters,
+                                           @Value("${taskchi.auth.password.threads:0}") int threads,
+                                           @Value("${taskchi.auth.password.queue:64}") int queue,
+                                           @Value("${taskchi.auth.password.max-wait-ms:2000}") long maxWaitMs) {
+        int n = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), n, queue, maxWaitMs, meters);
     }
 
     // برای dev: React معمولاً روی 5173 میاد
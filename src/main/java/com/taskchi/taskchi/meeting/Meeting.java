@@ -15,7 +15,8 @@ import java.util.*;
 public class Meeting {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "meetings_seq")
+    @SequenceGenerator(name = "meetings_seq", sequenceName = "meetings_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 140)
@@ -75,6 +76,11 @@ public class Meeting {
     @Column(nullable = false)
     private Instant updatedAt;
 
+    // Optimistic locking; also sent to clients as the meeting's ETag
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     public void prePersist() {
         Instant now = Instant.now();
@@ -1,10 +1,14 @@
 package com.taskchi.taskchi.meeting;
 
 import com.taskchi.taskchi.auth.CurrentUser;
+import com.taskchi.taskchi.common.IfMatch;
+import com.taskchi.taskchi.common.UserChangeVersions;
 import com.taskchi.taskchi.users.User;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -15,15 +19,18 @@ public class MeetingController {
 
     private final MeetingService service;
     private final CurrentUser currentUser;
+    private final UserChangeVersions versions;
 
-    public MeetingController(MeetingService service, CurrentUser currentUser) {
+    public MeetingController(MeetingService service, CurrentUser currentUser, UserChangeVersions versions) {
         this.service = service;
         this.currentUser = currentUser;
+        this.versions = versions;
     }
 
     @GetMapping
-    public List<MeetingDto> range(@RequestParam String from, @RequestParam String to, Authentication auth) {
+    public List<MeetingDto> range(@RequestParam String from, @RequestParam String to, Authentication auth, WebRequest request) {
         User me = currentUser.requireUser(auth);
+        if (request.checkNotModified(versions.etag(me.getId()))) return null;
         LocalDate f = LocalDate.parse(from);
         LocalDate t = LocalDate.parse(to);
 
@@ -34,31 +41,40 @@ public class MeetingController {
     }
 
     @GetMapping("/{id}")
-    public MeetingDto get(@PathVariable Long id, Authentication auth) {
+    public ResponseEntity<MeetingDto> get(@PathVariable Long id, Authentication auth) {
         User me = currentUser.requireUser(auth);
-        return toDto(service.get(me, id));
+        return withEtag(toDto(service.get(me, id)));
     }
 
     @PostMapping
     public ResponseEntity<MeetingDto> create(@RequestBody MeetingDto dto, Authentication auth) {
         User me = currentUser.requireUser(auth);
         Meeting created = service.create(me, dto);
-        return ResponseEntity.ok(toDto(created));
+        return withEtag(toDto(created));
     }
 
     @PutMapping("/{id}")
-    public MeetingDto update(@PathVariable Long id, @RequestBody MeetingDto dto, Authentication auth) {
+    public ResponseEntity<MeetingDto> update(@PathVariable Long id,
+                                             @RequestBody MeetingDto dto,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                             Authentication auth) {
         User me = currentUser.requireUser(auth);
-        return toDto(service.update(me, id, dto));
+        return withEtag(toDto(service.update(me, id, dto, ifMatch)));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id, Authentication auth) {
+    public ResponseEntity<Void> delete(@PathVariable Long id,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                       Authentication auth) {
         User me = currentUser.requireUser(auth);
-        service.delete(me, id);
+        service.delete(me, id, ifMatch);
         return ResponseEntity.noContent().build();
     }
 
+    private static ResponseEntity<MeetingDto> withEtag(MeetingDto dto) {
+        return ResponseEntity.ok().eTag(IfMatch.etag(dto.version)).body(dto);
+    }
+
     private static MeetingDto toDto(Meeting m) {
         MeetingDto dto = new MeetingDto();
         dto.id = m.getId();
@@ -72,6 +88,7 @@ public class MeetingController {
         dto.content = m.getContent();
         dto.outcome = m.getOutcome();
         dto.reminderMinutesBefore = m.getReminderMinutesBefore();
+        dto.version = m.getVersion();
         return dto;
     }
 }
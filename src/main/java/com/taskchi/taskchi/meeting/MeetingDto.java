@@ -18,4 +18,6 @@ public class MeetingDto {
     public String outcome;
 
     public List<Integer> reminderMinutesBefore; // e.g. [2880, 1440, 120]
+
+    public Long version; // read-only; send back as If-Match on update
 }
@@ -0,0 +1,118 @@
+package com.taskchi.taskchi.meeting;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * meeting_reminder_due (V23): one row per reminder trigger of a meeting with the instant it fires,
+ * so ReminderScheduler reads only what is due instead of expanding every meeting each minute.
+ * Written by MeetingService in the meeting's transaction; rows go away with the meeting (on delete cascade).
+ * A fired trigger is never re-armed (same as reminder_log before), even if the meeting is moved.
+ */
+@Repository
+public class MeetingReminderSchedule {
+
+    public record Due(Long meetingId, int minutesBefore, Instant fireAt) {}
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final ZoneId zoneId;
+
+    public MeetingReminderSchedule(NamedParameterJdbcTemplate jdbc,
+                                   @Value("${taskchi.default-zone:Asia/Tehran}") String zone) {
+        this.jdbc = jdbc;
+        this.zoneId = ZoneId.of(zone);
+    }
+
+    /**
+     * The meeting row must already be flushed (FK).
+     */
+    public void sync(Meeting m) {
+        MapSqlParameterSource p = new MapSqlParameterSource("meetingId", m.getId());
+
+        // no owner -> nobody to notify; alarms off -> not even the same-day alert
+        if (m.getCreatedBy() == null || !m.isAlarmEnabled()) {
+            jdbc.update("delete from meeting_reminder_due where meeting_id = :meetingId and not fired", p);
+            return;
+        }
+
+        // mandatory same-day alert (at meeting start) + custom reminders
+        Set<Integer> triggers = new LinkedHashSet<>();
+        triggers.add(0);
+        for (Integer v : m.getReminderMinutesBefore()) {
+            if (v != null && v > 0) triggers.add(v);
+        }
+
+        jdbc.update("""
+                delete from meeting_reminder_due
+                where meeting_id = :meetingId and not fired and minutes_before not in (:triggers)
+                """, p.addValue("triggers", triggers));
+
+        ZonedDateTime start = meetingStart(m);
+        List<MapSqlParameterSource> rows = new ArrayList<>(triggers.size());
+        for (Integer minutesBefore : triggers) {
+            rows.add(new MapSqlParameterSource()
+                    .addValue("meetingId", m.getId())
+                    .addValue("minutesBefore", minutesBefore)
+                    .addValue("fireAt", Timestamp.from(start.minusMinutes(minutesBefore).toInstant())));
+        }
+        jdbc.batchUpdate("""
+                insert into meeting_reminder_due (meeting_id, minutes_before, fire_at)
+                values (:meetingId, :minutesBefore, :fireAt)
+                on conflict (meeting_id, minutes_before)
+                do update set fire_at = excluded.fire_at
+                where not meeting_reminder_due.fired
+                """, rows.toArray(MapSqlParameterSource[]::new));
+    }
+
+    /**
+     * Unfired triggers with fire_at <= now, oldest first, locked for the caller's transaction
+     * (skip locked: another node running at the same time takes the others).
+     */
+    public List<Due> claimDue(Instant now, int limit) {
+        return jdbc.query("""
+                select meeting_id, minutes_before, fire_at
+                from meeting_reminder_due
+                where not fired and fire_at <= :now
+                order by fire_at
+                limit :limit
+                for update skip locked
+                """, new MapSqlParameterSource()
+                        .addValue("now", Timestamp.from(now))
+                        .addValue("limit", limit),
+                (rs, i) -> new Due(
+                        rs.getLong("meeting_id"),
+                        rs.getInt("minutes_before"),
+                        rs.getObject("fire_at", OffsetDateTime.class).toInstant()));
+    }
+
+    public void markFired(List<Due> due) {
+        if (due.isEmpty()) return;
+        jdbc.batchUpdate("""
+                update meeting_reminder_due set fired = true
+                where meeting_id = :meetingId and minutes_before = :minutesBefore
+                """, due.stream()
+                .map(d -> new MapSqlParameterSource()
+                        .addValue("meetingId", d.meetingId())
+                        .addValue("minutesBefore", d.minutesBefore()))
+                .toArray(MapSqlParameterSource[]::new));
+    }
+
+    public ZonedDateTime meetingStart(Meeting m) {
+        // If all-day or missing time -> 09:00
+        LocalTime start = (m.isAllDay() || m.getStartTime() == null) ? LocalTime.of(9, 0) : m.getStartTime();
+        return ZonedDateTime.of(m.getDate(), start, zoneId);
+    }
+}
@@ -6,13 +6,14 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface MeetingRepository extends JpaRepository<Meeting, Long> {
 
     // NOTE: ElementCollection (reminderMinutesBefore) is LAZY by default.
-    // For any flows that need reminders (API DTO or scheduler), use the fetch-join queries below.
+    // For any flows that need reminders (API DTO), use the fetch-join queries below.
 
     List<Meeting> findByDateBetween(LocalDate from, LocalDate to);
 
@@ -20,14 +21,13 @@ public interface MeetingRepository extends JpaRepository<Meeting, Long> {
 
     Optional<Meeting> findByIdAndCreatedById(Long id, Long createdById);
 
+    // ReminderScheduler: the meetings of the due reminders (see MeetingReminderSchedule)
     @Query("""
-        select distinct m from Meeting m
+        select m from Meeting m
         left join fetch m.createdBy cb
-        left join fetch m.reminderMinutesBefore r
-        where m.date between :from and :to
-        order by m.date asc
+        where m.id in :ids
     """)
-    List<Meeting> findInRangeWithReminders(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    List<Meeting> findAllWithOwnerByIdIn(@Param("ids") Collection<Long> ids);
 
     @Query("""
         select distinct m from Meeting m
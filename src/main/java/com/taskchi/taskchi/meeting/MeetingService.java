@@ -1,6 +1,8 @@
 // backend/src/main/java/com/taskchi/taskchi/meeting/MeetingService.java
 package com.taskchi.taskchi.meeting;
 
+import com.taskchi.taskchi.common.IfMatch;
+import com.taskchi.taskchi.common.UserChangeVersions;
 import com.taskchi.taskchi.users.User;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,9 +16,13 @@ import java.util.*;
 public class MeetingService {
 
     private final MeetingRepository repo;
+    private final UserChangeVersions versions;
+    private final MeetingReminderSchedule reminders;
 
-    public MeetingService(MeetingRepository repo) {
+    public MeetingService(MeetingRepository repo, UserChangeVersions versions, MeetingReminderSchedule reminders) {
         this.repo = repo;
+        this.versions = versions;
+        this.reminders = reminders;
     }
 
     @Transactional(readOnly = true)
@@ -38,20 +44,45 @@ public class MeetingService {
         Meeting m = new Meeting();
         m.setCreatedBy(owner);
         applyDto(m, dto, true);
-        return repo.save(m);
+        // flushed: the reminder rows reference the meeting
+        Meeting saved = repo.saveAndFlush(m);
+        reminders.sync(saved);
+        versions.touch(owner.getId());
+        return saved;
     }
 
     @Transactional
     public Meeting update(User owner, Long id, MeetingDto dto) {
+        return update(owner, id, dto, null);
+    }
+
+    /**
+     * ifMatch: expected version (If-Match header), null = unconditional.
+     * A concurrent update between load and commit is still caught by @Version.
+     */
+    @Transactional
+    public Meeting update(User owner, Long id, MeetingDto dto, String ifMatch) {
         Meeting m = get(owner, id);
+        IfMatch.check(ifMatch, m.getVersion());
         applyDto(m, dto, false);
-        return repo.save(m);
+        Meeting saved = repo.saveAndFlush(m);
+        reminders.sync(saved);
+        versions.touch(owner.getId());
+        return saved;
     }
 
     @Transactional
     public void delete(User owner, Long id) {
+        delete(owner, id, null);
+    }
+
+    @Transactional
+    public void delete(User owner, Long id, String ifMatch) {
         Meeting m = get(owner, id);
+        IfMatch.check(ifMatch, m.getVersion());
+        // meeting_reminder_due rows go with it (on delete cascade)
         repo.delete(m);
+        versions.touch(owner.getId());
     }
 
     private void applyDto(Meeting m, MeetingDto dto, boolean isCreate) {
@@ -15,7 +15,8 @@ import java.time.Instant;
 public class InAppNotification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "in_app_notifications_seq")
+    @SequenceGenerator(name = "in_app_notifications_seq", sequenceName = "in_app_notifications_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 40)
@@ -47,9 +48,18 @@ public class InAppNotification {
 
     private Instant readAt;
 
+    // > 1 for a coalesced TASK_MESSAGE notification (messages since the last read)
+    @Column(nullable = false)
+    private int messageCount = 1;
+
+    // feed order: latest message of a coalesced notification, else createdAt (created_at is the partition key)
+    @Column(nullable = false)
+    private Instant lastMessageAt;
+
     @PrePersist
     public void prePersist() {
         this.createdAt = Instant.now();
+        this.lastMessageAt = this.createdAt;
     }
 
 }
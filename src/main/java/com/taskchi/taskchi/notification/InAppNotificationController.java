@@ -1,11 +1,18 @@
 package com.taskchi.taskchi.notification;
 
 import com.taskchi.taskchi.auth.CurrentUser;
+import com.taskchi.taskchi.common.CursorPage;
+import com.taskchi.taskchi.common.KeysetCursor;
+import com.taskchi.taskchi.common.UserChangeVersions;
 import com.taskchi.taskchi.users.User;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.Instant;
 import java.util.List;
@@ -16,11 +23,26 @@ import java.util.List;
 public class InAppNotificationController {
 
     private final InAppNotificationRepository repo;
+    private final NotificationReadRepository reads;
+    private final NotificationService notifications;
+    private final UnreadCounters unread;
+    private final PushHub push;
+    private final ReadReceiptBuffer readReceipts;
     private final CurrentUser currentUser;
+    private final UserChangeVersions versions;
 
-    public InAppNotificationController(InAppNotificationRepository repo, CurrentUser currentUser) {
+    public InAppNotificationController(InAppNotificationRepository repo, NotificationReadRepository reads,
+                                       NotificationService notifications,
+                                       UnreadCounters unread, PushHub push, ReadReceiptBuffer readReceipts,
+                                       CurrentUser currentUser, UserChangeVersions versions) {
         this.repo = repo;
+        this.reads = reads;
+        this.notifications = notifications;
+        this.unread = unread;
+        this.push = push;
+        this.readReceipts = readReceipts;
         this.currentUser = currentUser;
+        this.versions = versions;
     }
 
     public record NotificationDto(
@@ -31,38 +53,153 @@ public class InAppNotificationController {
             Long meetingId,
             Long taskId,
             Instant createdAt,
-            Instant readAt
+            Instant readAt,
+            int messageCount,
+            Instant lastMessageAt
     ) {}
 
+    /**
+     * List item: message cut to a preview (truncated = there is more, see GET /{id}).
+     */
+    public record NotificationListDto(
+            Long id,
+            String type,
+            String title,
+            String preview,
+            boolean truncated,
+            Long meetingId,
+            Long taskId,
+            Instant createdAt,
+            Instant readAt,
+            int messageCount,
+            Instant lastMessageAt
+    ) {}
+
+    /**
+     * اعلان‌های من، جدیدترین اول، صفحه به صفحه (cursor = next پاسخ قبلی). unread=true فقط خوانده‌نشده‌ها.
+     */
     @GetMapping
-    public List<NotificationDto> listMine(Authentication auth) {
+    public CursorPage<NotificationListDto> feed(@RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit,
+                                                @RequestParam(defaultValue = "false") boolean unread,
+                                                Authentication auth,
+                                                WebRequest request) {
+        User me = currentUser.requireUser(auth);
+        if (request.checkNotModified(versions.etag(me.getId()))) return null;
+        int size = CursorPage.clampLimit(limit);
+        List<NotificationReadRepository.NotificationRow> rows =
+                reads.page(me.getId(), unread, KeysetCursor.decode(cursor), size + 1);
+        return CursorPage.of(rows, size, NotificationReadRepository.NotificationRow::position,
+                NotificationReadRepository.NotificationRow::dto);
+    }
+
+    /**
+     * متن کامل یک اعلان (فقط صاحب اعلان یا ADMIN)
+     */
+    @GetMapping("/{id}")
+    @Transactional(readOnly = true)
+    public NotificationDto get(@PathVariable Long id, Authentication auth) {
         User me = currentUser.requireUser(auth);
-        return repo.findTop200ByUserIdOrderByCreatedAtDesc(me.getId()).stream()
-                .map(n -> new NotificationDto(
-                        n.getId(),
-                        n.getType(),
-                        n.getTitle(),
-                        n.getMessage(),
-                        n.getMeetingId(),
-                        n.getTaskId(),
-                        n.getCreatedAt(),
-                        n.getReadAt()
-                ))
+        InAppNotification n = repo.findByIdWithUser(id).orElseThrow();
+        boolean allowed = me.isAdmin() || (n.getUser() != null && n.getUser().getId().equals(me.getId()));
+        if (!allowed) throw new AccessDeniedException("Not allowed");
+        return toDto(n);
+    }
+
+    /**
+     * Legacy list (latest 200 with full messages). Only on explicit opt-in: ?unpaged=true
+     */
+    @GetMapping(params = "unpaged=true")
+    public List<NotificationDto> listMine(Authentication auth, WebRequest request) {
+        User me = currentUser.requireUser(auth);
+        if (request.checkNotModified(versions.etag(me.getId()))) return null;
+        return repo.findTop200ByUserIdOrderByLastMessageAtDesc(me.getId()).stream()
+                .map(InAppNotificationController::toDto)
                 .toList();
     }
 
+    static NotificationDto toDto(InAppNotification n) {
+        return new NotificationDto(
+                n.getId(),
+                n.getType(),
+                n.getTitle(),
+                n.getMessage(),
+                n.getMeetingId(),
+                n.getTaskId(),
+                n.getCreatedAt(),
+                n.getReadAt(),
+                n.getMessageCount(),
+                n.getLastMessageAt()
+        );
+    }
+
+    /**
+     * کانال SSE به‌جای polling: رویدادهای notification، notification-read و task-message
+     * (و resync وقتی با Last-Event-ID نمی‌شود ادامه داد؛ در این حالت لیست‌ها را یک بار دوباره بگیر).
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Authentication auth,
+                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        User me = currentUser.requireUser(auth);
+        return push.subscribe(me.getId(), lastEventId);
+    }
+
+    public record UnreadCountDto(long count) {}
+
+    /**
+     * تعداد اعلان‌های خوانده‌نشده برای نشان روی آیکن زنگ (از شمارنده‌ی حافظه، بدون کوئری روی جدول اعلان‌ها)
+     */
+    @GetMapping("/unread-count")
+    public UnreadCountDto unreadCount(Authentication auth) {
+        User me = currentUser.requireUser(auth);
+        return new UnreadCountDto(unread.get(me.getId()));
+    }
+
+    /**
+     * اعلان‌های خودِ کاربر: در بافر write-behind صف می‌شود و همراه بقیه‌ی کلیک‌ها یک‌جا ذخیره می‌شود
+     * (شناسه‌ای که مال کاربر نیست نادیده گرفته می‌شود). پاسخ 202: تا flush بعدی (حداکثر
+     * taskchi.notifications.read-flush-ms) اعلان هنوز خوانده‌نشده دیده می‌شود؛ رویداد notification-read در SSE
+     * زمان ثبت را خبر می‌دهد. ADMIN برای اعلان دیگران: مسیر مستقیم، پاسخ 200.
+     */
     @PostMapping("/{id}/read")
     @Transactional
-    public void markRead(@PathVariable Long id, Authentication auth) {
+    public ResponseEntity<Void> markRead(@PathVariable Long id, Authentication auth) {
         User me = currentUser.requireUser(auth);
 
-        InAppNotification n = repo.findByIdWithUser(id).orElseThrow();
+        if (me.isAdmin()) {
+            InAppNotification n = repo.findByIdWithUser(id).orElseThrow();
+            boolean own = n.getUser() != null && n.getUser().getId().equals(me.getId());
+            if (!own) {
+                notifications.markRead(n);
+                return ResponseEntity.ok().build();
+            }
+        }
 
-        // فقط صاحب اعلان یا ADMIN
-        boolean allowed = me.isAdmin() || (n.getUser() != null && n.getUser().getId().equals(me.getId()));
-        if (!allowed) throw new AccessDeniedException("Not allowed");
+        readReceipts.enqueue(me.getId(), id);
+        return ResponseEntity.accepted().build();
+    }
+
+    public record MarkReadRequest(List<Long> ids) {}
+
+    public record MarkReadResponse(int updated) {}
 
-        n.setReadAt(Instant.now());
-        repo.save(n);
+    /**
+     * چند اعلانِ خودِ کاربر با یک UPDATE
+     */
+    @PostMapping("/read")
+    public MarkReadResponse markManyRead(@RequestBody MarkReadRequest req, Authentication auth) {
+        User me = currentUser.requireUser(auth);
+        List<Long> ids = req == null || req.ids() == null ? List.of() : req.ids().stream().distinct().toList();
+        if (ids.size() > 500) throw new IllegalArgumentException("At most 500 ids per call");
+        return new MarkReadResponse(notifications.markRead(me.getId(), ids));
+    }
+
+    /**
+     * همه‌ی اعلان‌های خودِ کاربر تا زمان before (پیش‌فرض: الان) با یک UPDATE
+     */
+    @PostMapping("/read-all")
+    public MarkReadResponse markAllRead(@RequestParam(required = false) Instant before, Authentication auth) {
+        User me = currentUser.requireUser(auth);
+        return new MarkReadResponse(notifications.markAllReadBefore(me.getId(), before != null ? before : Instant.now()));
     }
 }
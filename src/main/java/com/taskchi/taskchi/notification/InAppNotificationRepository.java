@@ -1,14 +1,21 @@
 package com.taskchi.taskchi.notification;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * The table is range-partitioned by month on created_at (V21); lists are ordered by last_message_at (V25),
+ * which is never before created_at, so an upper bound on last_message_at is also one on created_at and prunes
+ * newer partitions. Lookups by id alone probe the (id, created_at) primary key of each partition.
+ */
 public interface InAppNotificationRepository extends JpaRepository<InAppNotification, Long> {
-    List<InAppNotification> findTop50ByUserIdAndReadAtIsNullOrderByCreatedAtDesc(Long userId);
-    List<InAppNotification> findTop200ByUserIdOrderByCreatedAtDesc(Long userId);
+    List<InAppNotification> findTop50ByUserIdAndReadAtIsNullOrderByLastMessageAtDesc(Long userId);
+    List<InAppNotification> findTop200ByUserIdOrderByLastMessageAtDesc(Long userId);
 
     @Query("""
         select n from InAppNotification n
@@ -17,4 +24,17 @@ public interface InAppNotificationRepository extends JpaRepository<InAppNotifica
     """)
     Optional<InAppNotification> findByIdWithUser(@Param("id") Long id);
 
+    // conditional, so two concurrent "read" clicks decrement the unread counter once
+    @Modifying(flushAutomatically = true)
+    @Query("update InAppNotification n set n.readAt = :now where n.id = :id and n.readAt is null")
+    int markRead(@Param("id") Long id, @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        update InAppNotification n set n.readAt = :now
+        where n.user.id = :userId and n.readAt is null
+          and n.lastMessageAt <= :before and n.createdAt <= :before
+    """)
+    int markAllReadBefore(@Param("userId") Long userId, @Param("before") Instant before, @Param("now") Instant now);
+
 }
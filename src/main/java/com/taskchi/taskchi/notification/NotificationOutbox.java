@@ -0,0 +1,48 @@
+package com.taskchi.taskchi.notification;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Producer side of the notification outbox (V20): one INSERT in the caller's transaction, whatever the
+ * number of recipients. NotificationOutboxDispatcher turns it into InAppNotification rows shortly after commit.
+ */
+@Component
+public class NotificationOutbox {
+
+    private final JdbcTemplate jdbc;
+
+    public NotificationOutbox(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * @param dedupKey identifies the event (e.g. "task-message:42"); enqueueing the same key again is a no-op.
+     */
+    public void enqueue(String dedupKey, String type, String title, String message,
+                        Long taskId, Long meetingId, Collection<Long> recipientIds) {
+        Long[] recipients = recipientIds.stream().filter(Objects::nonNull).distinct().toArray(Long[]::new);
+        if (recipients.length == 0) return;
+
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement("""
+                    insert into notification_outbox(dedup_key, type, title, message, task_id, meeting_id, recipient_ids)
+                    values (?, ?, ?, ?, ?, ?, ?)
+                    on conflict (dedup_key) do nothing
+                    """);
+            ps.setString(1, dedupKey);
+            ps.setString(2, type);
+            ps.setString(3, title);
+            ps.setString(4, message);
+            ps.setObject(5, taskId, Types.BIGINT);
+            ps.setObject(6, meetingId, Types.BIGINT);
+            ps.setArray(7, con.createArrayOf("bigint", recipients));
+            return ps;
+        });
+    }
+}
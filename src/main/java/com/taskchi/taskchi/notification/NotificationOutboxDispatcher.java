@@ -0,0 +1,179 @@
+package com.taskchi.taskchi.notification;
+
+import com.taskchi.taskchi.users.User;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Consumer side of the notification outbox (V20).
+ *
+ * Every tick it claims a batch of pending rows with "for update skip locked" (safe with several nodes),
+ * expands each into one InAppNotification per recipient through NotificationService.send (JDBC-batched inserts,
+ * pooled ids; counters, ETags and SSE after commit) and marks the rows dispatched, all in one transaction:
+ * either a row's notifications exist and it is marked, or neither. A failed batch is retried row by row,
+ * so one bad row (e.g. a recipient that no longer exists) only delays itself; it is given up after MAX_ATTEMPTS.
+ *
+ * Metrics: taskchi.notifications.outbox.lag (timer, enqueue -> dispatch), taskchi.notifications.outbox.pending (gauge).
+ */
+@Component
+public class NotificationOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationOutboxDispatcher.class);
+
+    private static final int MAX_ATTEMPTS = 10;
+    // rounds per tick, so a backlog drains without waiting for the next tick
+    private static final int MAX_ROUNDS = 20;
+    private static final String COALESCED_TYPE = "TASK_MESSAGE";
+
+    private record Pending(long id, String type, String title, String message, Long taskId, Long meetingId,
+                           Long[] recipients, Instant createdAt) {}
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final EntityManager em;
+    private final NotificationService notifications;
+    private final int batchSize;
+
+    private final Timer lag;
+    private final AtomicLong pending = new AtomicLong();
+
+    public NotificationOutboxDispatcher(JdbcTemplate jdbc,
+                                        PlatformTransactionManager txManager,
+                                        EntityManager em,
+                                        NotificationService notifications,
+                                        MeterRegistry meters,
+                                        @Value("${taskchi.notifications.outbox.batch-size:100}") int batchSize) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.em = em;
+        this.notifications = notifications;
+        this.batchSize = batchSize;
+        this.lag = Timer.builder("taskchi.notifications.outbox.lag").register(meters);
+        Gauge.builder("taskchi.notifications.outbox.pending", pending, AtomicLong::get).register(meters);
+    }
+
+    @Scheduled(fixedDelayString = "${taskchi.notifications.outbox.poll-ms:500}")
+    public void dispatch() {
+        for (int round = 0; round < MAX_ROUNDS; round++) {
+            if (drain(batchSize) < batchSize) break;
+        }
+        Long n = jdbc.queryForObject(
+                "select count(*) from notification_outbox where dispatched_at is null and attempts < ?",
+                Long.class, MAX_ATTEMPTS);
+        pending.set(n == null ? 0 : n);
+    }
+
+    // dispatched rows are only kept for troubleshooting
+    @Scheduled(cron = "0 17 * * * *")
+    public void purgeDispatched() {
+        jdbc.update("delete from notification_outbox where dispatched_at < now() - interval '7 days'");
+    }
+
+    /**
+     * @return rows claimed
+     */
+    private int drain(int limit) {
+        List<Long> claimed = new ArrayList<>();
+        try {
+            Integer n = tx.execute(s -> {
+                List<Pending> batch = claim(limit, null);
+                for (Pending p : batch) {
+                    claimed.add(p.id());
+                    expand(p);
+                }
+                return batch.size();
+            });
+            return n == null ? 0 : n;
+        } catch (RuntimeException e) {
+            log.warn("Outbox batch of {} failed, retrying one by one: {}", claimed.size(), e.toString());
+            for (Long id : claimed) drainOne(id);
+            return claimed.size();
+        }
+    }
+
+    private void drainOne(Long id) {
+        try {
+            tx.executeWithoutResult(s -> claim(1, id).forEach(this::expand));
+        } catch (RuntimeException e) {
+            log.warn("Outbox row {} failed: {}", id, e.toString());
+            String error = e.toString();
+            jdbc.update("update notification_outbox set attempts = attempts + 1, last_error = ? where id = ?",
+                    error.length() > 500 ? error.substring(0, 500) : error, id);
+        }
+    }
+
+    private List<Pending> claim(int limit, Long onlyId) {
+        String sql = """
+                select id, type, title, message, task_id, meeting_id, recipient_ids, created_at
+                from notification_outbox
+                where dispatched_at is null and attempts < ?
+                %s
+                order by id
+                limit ?
+                for update skip locked
+                """.formatted(onlyId != null ? "and id = ?" : "");
+        Object[] args = onlyId != null
+                ? new Object[]{MAX_ATTEMPTS, onlyId, limit}
+                : new Object[]{MAX_ATTEMPTS, limit};
+        return jdbc.query(sql, NotificationOutboxDispatcher::mapRow, args);
+    }
+
+    private void expand(Pending p) {
+        // chat messages: one unread notification per task thread, not one per message
+        boolean coalesce = COALESCED_TYPE.equals(p.type()) && p.taskId() != null;
+        Long[] recipients = p.recipients().clone();
+        // coalesce() locks per (user, task): same order on every node
+        if (coalesce) Arrays.sort(recipients);
+        for (Long userId : recipients) {
+            if (coalesce) {
+                notifications.coalesce(userId, p.taskId(), p.type(), p.title(), p.message());
+                continue;
+            }
+            InAppNotification n = new InAppNotification();
+            n.setType(p.type());
+            n.setTitle(p.title());
+            n.setMessage(p.message());
+            n.setTaskId(p.taskId());
+            n.setMeetingId(p.meetingId());
+            n.setUser(em.getReference(User.class, userId));
+            notifications.send(n);
+        }
+        jdbc.update("update notification_outbox set dispatched_at = now(), attempts = attempts + 1 where id = ?", p.id());
+        lag.record(Duration.between(p.createdAt(), Instant.now()));
+    }
+
+    private static Pending mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Array recipients = rs.getArray("recipient_ids");
+        return new Pending(
+                rs.getLong("id"),
+                rs.getString("type"),
+                rs.getString("title"),
+                rs.getString("message"),
+                rs.getObject("task_id", Long.class),
+                rs.getObject("meeting_id", Long.class),
+                (Long[]) recipients.getArray(),
+                rs.getObject("created_at", OffsetDateTime.class).toInstant()
+        );
+    }
+}
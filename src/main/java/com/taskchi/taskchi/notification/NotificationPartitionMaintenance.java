@@ -0,0 +1,124 @@
+package com.taskchi.taskchi.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of in_app_notifications (see V21) in shape:
+ * - creates the partitions for the next `ahead` months, so inserts never fall into the default partition;
+ * - past `retention-months`, a partition without unread rows is dropped (retention-mode=drop) or detached and
+ *   kept as a plain table in_app_notifications_pYYYYMM_archived (retention-mode=archive). Partitions that still
+ *   hold unread notifications are left alone until those are read.
+ * Runs at startup and daily; an advisory lock keeps nodes from doing it at the same time.
+ */
+@Component
+public class NotificationPartitionMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationPartitionMaintenance.class);
+
+    private static final String PREFIX = "in_app_notifications_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final long LOCK_KEY = 0x7461736b_6e706d74L;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final int ahead;
+    private final int retentionMonths;
+    private final boolean archive;
+    // "this month" as the users see it, not the server's zone
+    private final ZoneId zoneId;
+
+    public NotificationPartitionMaintenance(JdbcTemplate jdbc,
+                                            PlatformTransactionManager txManager,
+                                            @Value("${taskchi.notifications.partitions.ahead:3}") int ahead,
+                                            @Value("${taskchi.notifications.retention-months:12}") int retentionMonths,
+                                            @Value("${taskchi.notifications.retention-mode:drop}") String retentionMode,
+                                            @Value("${taskchi.default-zone:Asia/Tehran}") String zone) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.ahead = ahead;
+        this.retentionMonths = retentionMonths;
+        this.archive = "archive".equals(retentionMode);
+        this.zoneId = ZoneId.of(zone);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        run();
+    }
+
+    // every day at 03:10
+    @Scheduled(cron = "0 10 3 * * *")
+    public void run() {
+        try {
+            tx.executeWithoutResult(s -> {
+                Boolean locked = jdbc.queryForObject("select pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY);
+                if (!Boolean.TRUE.equals(locked)) return;
+                createAhead();
+                if (retentionMonths > 0) applyRetention();
+            });
+        } catch (RuntimeException e) {
+            log.warn("Notification partition maintenance failed: {}", e.toString());
+        }
+    }
+
+    private void createAhead() {
+        YearMonth current = YearMonth.now(zoneId);
+        for (int i = 0; i <= ahead; i++) {
+            YearMonth m = current.plusMonths(i);
+            LocalDate from = m.atDay(1);
+            LocalDate to = m.plusMonths(1).atDay(1);
+            // dates come from YearMonth, never from input: safe to inline
+            jdbc.execute("create table if not exists " + PREFIX + m.format(SUFFIX)
+                    + " partition of in_app_notifications for values from ('" + from + "') to ('" + to + "')");
+        }
+    }
+
+    private void applyRetention() {
+        YearMonth oldestKept = YearMonth.now(zoneId).minusMonths(retentionMonths);
+        List<String> partitions = jdbc.queryForList("""
+                select c.relname
+                from pg_inherits i
+                join pg_class c on c.oid = i.inhrelid
+                join pg_class p on p.oid = i.inhparent
+                where p.relname = 'in_app_notifications'
+                  and c.relname ~ '^in_app_notifications_p[0-9]{6}$'
+                order by c.relname
+                """, String.class);
+
+        for (String name : partitions) {
+            YearMonth month = YearMonth.parse(name.substring(PREFIX.length()), SUFFIX);
+            if (!month.isBefore(oldestKept)) break; // sorted by name = by month
+
+            Boolean hasUnread = jdbc.queryForObject(
+                    "select exists (select 1 from " + name + " where read_at is null)", Boolean.class);
+            if (Boolean.TRUE.equals(hasUnread)) {
+                log.info("Keeping notification partition {} past retention: it still has unread rows", name);
+                continue;
+            }
+
+            if (archive) {
+                jdbc.execute("alter table in_app_notifications detach partition " + name);
+                jdbc.execute("alter table " + name + " rename to " + name + "_archived");
+                log.info("Archived notification partition {}", name);
+            } else {
+                jdbc.execute("drop table " + name);
+                log.info("Dropped notification partition {}", name);
+            }
+        }
+    }
+}
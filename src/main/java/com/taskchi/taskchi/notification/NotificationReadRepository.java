@@ -0,0 +1,82 @@
+package com.taskchi.taskchi.notification;
+
+import com.taskchi.taskchi.common.KeysetCursor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Notification feed pages with plain JDBC: list columns plus a message preview cut in SQL,
+ * so the full TEXT body never leaves the database for a list (see V25 for the indexes).
+ */
+@Repository
+public class NotificationReadRepository {
+
+    public static final int PREVIEW_LENGTH = 160;
+
+    public record NotificationRow(InAppNotificationController.NotificationListDto dto, KeysetCursor position) {}
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public NotificationReadRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Fetch limit + 1 rows (see CursorPage.of).
+     */
+    public List<NotificationRow> page(Long userId, boolean unreadOnly, KeysetCursor after, int limit) {
+        String sql = """
+                select n.id, n.type, n.title,
+                       left(n.message, :preview) as preview,
+                       coalesce(length(n.message), 0) > :preview as truncated,
+                       n.meeting_id, n.task_id, n.created_at, n.read_at, n.message_count, n.last_message_at
+                from in_app_notifications n
+                where n.user_id = :userId
+                  %s
+                  and (n.last_message_at, n.id) < (:position, :id)
+                  and n.created_at <= :position
+                order by n.last_message_at desc, n.id desc
+                limit :limit
+                """.formatted(unreadOnly ? "and n.read_at is null" : "");
+
+        MapSqlParameterSource p = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("preview", PREVIEW_LENGTH)
+                .addValue("position", OffsetDateTime.ofInstant(after.createdAt(), ZoneOffset.UTC))
+                .addValue("id", after.id())
+                .addValue("limit", limit);
+
+        return jdbc.query(sql, p, NotificationReadRepository::mapRow);
+    }
+
+    private static NotificationRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Instant createdAt = instant(rs, "created_at");
+        var dto = new InAppNotificationController.NotificationListDto(
+                rs.getLong("id"),
+                rs.getString("type"),
+                rs.getString("title"),
+                rs.getString("preview"),
+                rs.getBoolean("truncated"),
+                rs.getObject("meeting_id", Long.class),
+                rs.getObject("task_id", Long.class),
+                createdAt,
+                instant(rs, "read_at"),
+                rs.getInt("message_count"),
+                instant(rs, "last_message_at")
+        );
+        return new NotificationRow(dto, new KeysetCursor(dto.lastMessageAt(), dto.id()));
+    }
+
+    private static Instant instant(ResultSet rs, String col) throws SQLException {
+        OffsetDateTime v = rs.getObject(col, OffsetDateTime.class);
+        return v == null ? null : v.toInstant();
+    }
+}
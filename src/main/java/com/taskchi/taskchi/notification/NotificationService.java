@@ -0,0 +1,153 @@
+package com.taskchi.taskchi.notification;
+
+import com.taskchi.taskchi.common.UserChangeVersions;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The one way to create or mark read an InAppNotification, so that everything derived from
+ * the notification table (unread counters, list ETags, SSE push) follows every change.
+ */
+@Service
+public class NotificationService {
+
+    private final InAppNotificationRepository repo;
+    private final UnreadCounters unread;
+    private final UserChangeVersions versions;
+    private final PushHub push;
+    private final JdbcTemplate jdbc;
+
+    public NotificationService(InAppNotificationRepository repo, UnreadCounters unread, UserChangeVersions versions,
+                               PushHub push, JdbcTemplate jdbc) {
+        this.repo = repo;
+        this.unread = unread;
+        this.versions = versions;
+        this.push = push;
+        this.jdbc = jdbc;
+    }
+
+    public InAppNotification send(InAppNotification n) {
+        InAppNotification saved = repo.save(n);
+        Long userId = ownerId(saved);
+        if (userId != null) {
+            if (saved.getReadAt() == null) unread.add(userId, 1);
+            versions.touch(userId);
+            push.publish(userId, "notification", InAppNotificationController.toDto(saved));
+        }
+        return saved;
+    }
+
+    /**
+     * One upsert per message however long the thread: bumps the user's unread notification for
+     * (taskId, type) - count + 1, latest title/preview, last_message_at = now so it moves to the top of the feed -
+     * or inserts it when there is none (first message, or the previous one was read).
+     * created_at (the partition key) stays the first message's time.
+     * The transaction-scoped advisory lock on (user, task) makes concurrent dispatchers (several nodes) take turns,
+     * so a new thread gets exactly one row. Must run inside a transaction (the outbox dispatcher's).
+     * The unread counter only grows on insert.
+     */
+    public InAppNotificationController.NotificationDto coalesce(Long userId, Long taskId, String type,
+                                                                String title, String message) {
+        jdbc.queryForObject("select count(*) from (select pg_advisory_xact_lock(hashtext(?))) l",
+                Long.class, userId + ":" + taskId);
+
+        InAppNotificationController.NotificationDto dto = jdbc.queryForObject("""
+                with target as (
+                    select id, created_at
+                    from in_app_notifications
+                    where user_id = ? and task_id = ? and type = ? and read_at is null
+                    order by last_message_at desc, id desc
+                    limit 1
+                    for update
+                ), bumped as (
+                    update in_app_notifications n
+                    set message_count = n.message_count + 1, title = ?, message = ?, last_message_at = now()
+                    from target t
+                    where n.id = t.id and n.created_at = t.created_at
+                    returning n.id, n.created_at, n.message_count, n.last_message_at
+                ), inserted as (
+                    insert into in_app_notifications
+                        (type, title, message, user_id, task_id, created_at, last_message_at, message_count)
+                    select ?, ?, ?, ?, ?, now(), now(), 1
+                    where not exists (select 1 from bumped)
+                    returning id, created_at, message_count, last_message_at
+                )
+                select id, created_at, message_count, last_message_at from bumped
+                union all
+                select id, created_at, message_count, last_message_at from inserted
+                """, (rs, i) -> new InAppNotificationController.NotificationDto(
+                rs.getLong("id"), type, title, message, null, taskId,
+                rs.getObject("created_at", OffsetDateTime.class).toInstant(), null,
+                rs.getInt("message_count"),
+                rs.getObject("last_message_at", OffsetDateTime.class).toInstant()
+        ), userId, taskId, type, title, message, type, title, message, userId, taskId);
+
+        if (dto.messageCount() == 1) unread.add(userId, 1);
+        versions.touch(userId);
+        push.publish(userId, "notification", dto);
+        return dto;
+    }
+
+    /**
+     * Idempotent: only the call that actually flips read_at decrements the counter.
+     */
+    public void markRead(InAppNotification n) {
+        if (n.getReadAt() != null) return;
+        if (repo.markRead(n.getId(), Instant.now()) == 0) return;
+        Long userId = ownerId(n);
+        applyRead(userId, List.of(n.getId()));
+    }
+
+    /**
+     * One ownership-filtered UPDATE; ids that aren't userId's or are already read are skipped,
+     * and only the ids it actually changed are counted and pushed.
+     */
+    @Transactional
+    public int markRead(Long userId, Collection<Long> ids) {
+        if (ids.isEmpty()) return 0;
+        List<Long> updated = jdbc.query(con -> {
+            var ps = con.prepareStatement("""
+                    update in_app_notifications set read_at = now()
+                    where user_id = ? and id = any(?) and read_at is null
+                    returning id
+                    """);
+            ps.setLong(1, userId);
+            ps.setArray(2, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, (rs, i) -> rs.getLong(1));
+        applyRead(userId, updated);
+        return updated.size();
+    }
+
+    @Transactional
+    public int markAllReadBefore(Long userId, Instant before) {
+        int n = repo.markAllReadBefore(userId, before, Instant.now());
+        if (n > 0) {
+            unread.add(userId, -n);
+            versions.touch(userId);
+            push.publish(userId, "notification-read", Map.of("before", before));
+        }
+        return n;
+    }
+
+    /**
+     * Bookkeeping for notifications already marked read in the DB (ReadReceiptBuffer's batch).
+     */
+    void applyRead(Long userId, List<Long> ids) {
+        if (userId == null || ids.isEmpty()) return;
+        unread.add(userId, -ids.size());
+        versions.touch(userId);
+        push.publish(userId, "notification-read", Map.of("ids", ids));
+    }
+
+    private static Long ownerId(InAppNotification n) {
+        return n.getUser() != null ? n.getUser().getId() : null;
+    }
+}
@@ -0,0 +1,199 @@
+package com.taskchi.taskchi.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-Sent Events to connected users (GET /api/notifications/stream).
+ *
+ * - SseEmitter is async servlet: an idle connection holds a socket and a few objects, no thread.
+ * - Events are published after commit (publish()), so a client never sees a row it can't read yet.
+ * - Event ids are "epoch:seq". The last `replaySize` events per user are kept, so a reconnect with
+ *   Last-Event-ID gets what it missed; if that isn't possible (restart, other node, too far behind)
+ *   the client gets a "resync" event and should refetch its lists once.
+ * - A heartbeat comment every `heartbeat` keeps proxies from closing idle streams and finds dead ones.
+ * - The stream is registered before the replay, so an event committed during a reconnect may arrive twice:
+ *   clients should ignore ids they have already seen.
+ */
+@Component
+public class PushHub {
+
+    private static final Logger log = LoggerFactory.getLogger(PushHub.class);
+
+    private record Event(long seq, String name, Object data) {}
+
+    private static final class Replay {
+        final ArrayDeque<Event> events = new ArrayDeque<>();
+        long droppedUpTo; // highest seq pushed out of the buffer
+        volatile long lastUsed = System.nanoTime();
+    }
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong seq = new AtomicLong();
+    private final ConcurrentHashMap<Long, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Replay> replay = new ConcurrentHashMap<>();
+    // seq at the last purge of idle replay buffers: a user without a buffer may have lost events up to here
+    private volatile long purgedUpTo;
+
+    private final long timeoutMillis;
+    private final int replaySize;
+
+    public PushHub(@Value("${taskchi.push.timeout-ms:1800000}") long timeoutMillis,
+                   @Value("${taskchi.push.replay-size:100}") int replaySize) {
+        this.timeoutMillis = timeoutMillis;
+        this.replaySize = replaySize;
+    }
+
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Set<SseEmitter> set = emitters.computeIfAbsent(userId, k -> new CopyOnWriteArraySet<>());
+        set.add(emitter);
+        Runnable remove = () -> remove(userId, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        try {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                resume(userId, emitter, lastEventId.trim());
+            } else {
+                emitter.send(SseEmitter.event().comment("connected"));
+            }
+        } catch (IOException e) {
+            remove.run();
+        }
+        return emitter;
+    }
+
+    /**
+     * Sends an event to every stream of each user; after commit when inside a transaction.
+     */
+    public void publish(Collection<Long> userIds, String name, Object data) {
+        List<Long> ids = userIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) return;
+        Runnable r = () -> {
+            for (Long userId : ids) deliver(userId, new Event(seq.incrementAndGet(), name, data));
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            r.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                r.run();
+            }
+        });
+    }
+
+    public void publish(Long userId, String name, Object data) {
+        publish(Collections.singletonList(userId), name, data);
+    }
+
+    public int connections() {
+        return emitters.values().stream().mapToInt(Set::size).sum();
+    }
+
+    // every 25 seconds (below the usual 30-60s idle timeout of proxies)
+    @Scheduled(fixedDelayString = "${taskchi.push.heartbeat-ms:25000}")
+    public void heartbeat() {
+        emitters.forEach((userId, set) -> {
+            for (SseEmitter e : set) {
+                try {
+                    e.send(SseEmitter.event().comment("hb"));
+                } catch (IOException | IllegalStateException ex) {
+                    remove(userId, e);
+                }
+            }
+        });
+
+        // replay buffers of users that had no event and no stream for 10 minutes
+        long cutoff = System.nanoTime() - 600_000_000_000L;
+        long now = seq.get();
+        if (replay.entrySet().removeIf(en -> en.getValue().lastUsed < cutoff && !emitters.containsKey(en.getKey()))) {
+            purgedUpTo = now;
+        }
+    }
+
+    private void deliver(Long userId, Event ev) {
+        Replay r = replay.computeIfAbsent(userId, k -> new Replay());
+        synchronized (r) {
+            r.events.addLast(ev);
+            while (r.events.size() > replaySize) r.droppedUpTo = r.events.removeFirst().seq();
+            r.lastUsed = System.nanoTime();
+        }
+        Set<SseEmitter> set = emitters.get(userId);
+        if (set == null) return;
+        for (SseEmitter e : set) {
+            try {
+                e.send(toSse(ev));
+            } catch (IOException | IllegalStateException ex) {
+                remove(userId, e);
+            }
+        }
+    }
+
+    private void resume(Long userId, SseEmitter emitter, String lastEventId) throws IOException {
+        long after = parseSeq(lastEventId);
+        List<Event> missed = new ArrayList<>();
+        boolean complete = false;
+        Replay r = replay.get(userId);
+        if (after >= 0 && r != null) {
+            synchronized (r) {
+                // nothing newer than the client's last event has been pushed out of the buffer
+                complete = r.droppedUpTo <= after;
+                for (Event ev : r.events) {
+                    if (ev.seq() > after) missed.add(ev);
+                }
+            }
+        } else if (after >= 0) {
+            complete = after >= purgedUpTo;
+        }
+
+        if (!complete) {
+            emitter.send(SseEmitter.event().id(epoch + ":" + seq.get()).name("resync").data(Map.of()));
+            return;
+        }
+        for (Event ev : missed) emitter.send(toSse(ev));
+    }
+
+    // -1 = unknown / other epoch (restart or another node)
+    private long parseSeq(String lastEventId) {
+        int colon = lastEventId.indexOf(':');
+        if (colon < 0 || !lastEventId.substring(0, colon).equals(epoch)) return -1;
+        try {
+            return Long.parseLong(lastEventId.substring(colon + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private SseEmitter.SseEventBuilder toSse(Event ev) {
+        return SseEmitter.event()
+                .id(epoch + ":" + ev.seq())
+                .name(ev.name())
+                .data(ev.data(), MediaType.APPLICATION_JSON);
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (k, set) -> {
+            set.remove(emitter);
+            return set.isEmpty() ? null : set;
+        });
+        log.trace("SSE stream of user {} closed", userId);
+    }
+}
@@ -14,7 +14,8 @@ import java.time.Instant;
 public class ReminderLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reminder_log_seq")
+    @SequenceGenerator(name = "reminder_log_seq", sequenceName = "reminder_log_id_seq", allocationSize = 50)
     @Getter
     @Setter
     private Long id;
@@ -2,33 +2,38 @@
 package com.taskchi.taskchi.notification;
 
 import com.taskchi.taskchi.meeting.Meeting;
+import com.taskchi.taskchi.meeting.MeetingReminderSchedule;
 import com.taskchi.taskchi.meeting.MeetingRepository;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.*;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Component
 public class ReminderScheduler {
 
+    // due reminders handled per run; the rest wait for the next minute
+    private static final int BATCH = 500;
+
     private final MeetingRepository meetingRepo;
-    private final InAppNotificationRepository notifRepo;
+    private final MeetingReminderSchedule schedule;
+    private final NotificationOutbox outbox;
     private final ReminderLogRepository logRepo;
-    private final ZoneId zoneId;
 
     public ReminderScheduler(
             MeetingRepository meetingRepo,
-            InAppNotificationRepository notifRepo,
-            ReminderLogRepository logRepo,
-            @Value("${taskchi.default-zone:Asia/Tehran}") String zone
+            MeetingReminderSchedule schedule,
+            NotificationOutbox outbox,
+            ReminderLogRepository logRepo
     ) {
         this.meetingRepo = meetingRepo;
-        this.notifRepo = notifRepo;
+        this.schedule = schedule;
+        this.outbox = outbox;
         this.logRepo = logRepo;
-        this.zoneId = ZoneId.of(zone);
     }
 
     // every 60 seconds
@@ -36,62 +41,43 @@ public class ReminderScheduler {
     @Transactional
     public void run() {
         Instant now = Instant.now();
-        ZonedDateTime zNow = now.atZone(zoneId);
-
-        // only look ahead 30 days for performance
-        LocalDate from = zNow.toLocalDate().minusDays(1);
-        LocalDate to = zNow.toLocalDate().plusDays(30);
-
-        // IMPORTANT: fetch reminders + owner to avoid LazyInitializationException in scheduler
-        List<Meeting> meetings = meetingRepo.findInRangeWithReminders(from, to);
-
-        for (Meeting m : meetings) {
-            // Ownership is required for in-app notifications
-            if (m.getCreatedBy() == null) continue;
 
-            // Respect per-meeting alarm toggle
-            if (!m.isAlarmEnabled()) continue;
+        // only the index range fire_at <= now of unfired triggers (meeting_reminder_due, V23)
+        List<MeetingReminderSchedule.Due> due = schedule.claimDue(now, BATCH);
+        if (due.isEmpty()) return;
 
-            ZonedDateTime meetingStart = toMeetingStart(m);
-
-            // Mandatory same-day alert (at meeting start) + custom reminders
-            java.util.LinkedHashSet<Integer> triggers = new java.util.LinkedHashSet<>();
-            triggers.add(0);
-            if (m.getReminderMinutesBefore() != null) triggers.addAll(m.getReminderMinutesBefore());
-
-            for (Integer minutesBefore : triggers) {
-                if (minutesBefore == null || minutesBefore < 0) continue;
+        Map<Long, Meeting> meetings = new HashMap<>();
+        for (Meeting m : meetingRepo.findAllWithOwnerByIdIn(
+                due.stream().map(MeetingReminderSchedule.Due::meetingId).distinct().toList())) {
+            meetings.put(m.getId(), m);
+        }
 
-                Instant reminderAt = meetingStart.minusMinutes(minutesBefore).toInstant();
+        for (MeetingReminderSchedule.Due d : due) {
+            Meeting m = meetings.get(d.meetingId());
 
-                // Fire if due (or late due to downtime), but not more than 48h late.
-                if (reminderAt.isAfter(now)) continue;
-                if (reminderAt.isBefore(now.minus(Duration.ofHours(48)))) continue;
+            // Ownership is required for in-app notifications; respect per-meeting alarm toggle
+            if (m == null || m.getCreatedBy() == null || !m.isAlarmEnabled()) continue;
 
-                if (logRepo.existsByMeetingIdAndMinutesBefore(m.getId(), minutesBefore)) continue;
+            // Fire if due (or late due to downtime), but not more than 48h late.
+            if (d.fireAt().isBefore(now.minus(Duration.ofHours(48)))) continue;
 
-                // create notification
-                InAppNotification n = new InAppNotification();
-                n.setType("MEETING_REMINDER");
-                n.setMeetingId(m.getId());
-                n.setUser(m.getCreatedBy());
-                n.setTitle("یادآوری رویداد: " + m.getTitle());
-                n.setMessage(buildMessage(m, meetingStart, minutesBefore));
+            int minutesBefore = d.minutesBefore();
 
-                notifRepo.save(n);
+            // create notification (through the outbox, same transaction as the log row)
+            outbox.enqueue("meeting:" + m.getId() + ":reminder:" + minutesBefore,
+                    "MEETING_REMINDER",
+                    "یادآوری رویداد: " + m.getTitle(),
+                    buildMessage(m, schedule.meetingStart(m), minutesBefore),
+                    null, m.getId(), List.of(m.getCreatedBy().getId()));
 
-                ReminderLog log = new ReminderLog();
-                log.setMeetingId(m.getId());
-                log.setMinutesBefore(minutesBefore);
-                logRepo.save(log);
-            }
+            ReminderLog log = new ReminderLog();
+            log.setMeetingId(m.getId());
+            log.setMinutesBefore(minutesBefore);
+            logRepo.save(log);
         }
-    }
 
-    private ZonedDateTime toMeetingStart(Meeting m) {
-        // If all-day or missing time -> 09:00
-        LocalTime start = (m.isAllDay() || m.getStartTime() == null) ? LocalTime.of(9, 0) : m.getStartTime();
-        return ZonedDateTime.of(m.getDate(), start, zoneId);
+        // skipped ones too: they would never become sendable
+        schedule.markFired(due);
     }
 
     private String buildMessage(Meeting m, ZonedDateTime meetingStart, int minutesBefore) {
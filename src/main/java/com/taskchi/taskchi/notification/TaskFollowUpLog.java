@@ -14,7 +14,8 @@ import java.time.Instant;
 public class TaskFollowUpLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_followup_log_seq")
+    @SequenceGenerator(name = "task_followup_log_seq", sequenceName = "task_followup_log_id_seq", allocationSize = 50)
     @Getter
     @Setter
     private Long id;
@@ -16,18 +16,18 @@ import java.util.List;
 public class TaskFollowUpScheduler {
 
     private final TaskRepository taskRepo;
-    private final InAppNotificationRepository notifRepo;
+    private final NotificationOutbox outbox;
     private final TaskFollowUpLogRepository logRepo;
     private final ZoneId zoneId;
 
     public TaskFollowUpScheduler(
             TaskRepository taskRepo,
-            InAppNotificationRepository notifRepo,
+            NotificationOutbox outbox,
             TaskFollowUpLogRepository logRepo,
             @Value("${taskchi.default-zone:Asia/Tehran}") String zone
     ) {
         this.taskRepo = taskRepo;
-        this.notifRepo = notifRepo;
+        this.outbox = outbox;
         this.logRepo = logRepo;
         this.zoneId = ZoneId.of(zone);
     }
@@ -48,17 +48,13 @@ public class TaskFollowUpScheduler {
             Instant followUpAt = t.getFollowUpAt();
             if (logRepo.existsByTaskIdAndFollowUpAt(t.getId(), followUpAt)) continue;
 
-            // Build notification
-            InAppNotification n = new InAppNotification();
-            n.setType("TASK_FOLLOWUP");
-            n.setUser(t.getCreatedBy());
-            n.setTaskId(t.getId());
-
+            // Build notification (the outbox dedup key also covers a crash between this and the log row)
             String title = "یادآوری پیگیری تسک: " + safe(t.getTitle());
-            n.setTitle(title);
-            n.setMessage(buildMessage(t, followUpAt));
-
-            notifRepo.save(n);
+            outbox.enqueue("task:" + t.getId() + ":follow-up:" + followUpAt.toEpochMilli(),
+                    "TASK_FOLLOWUP",
+                    title,
+                    buildMessage(t, followUpAt),
+                    t.getId(), null, List.of(t.getCreatedBy().getId()));
 
             // Log to avoid duplicates
             TaskFollowUpLog log = new TaskFollowUpLog();
@@ -0,0 +1,75 @@
+package com.taskchi.taskchi.notification;
+
+import com.taskchi.taskchi.common.RebuildableState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory unread notification count per user, for the bell badge.
+ * Kept up to date by NotificationService (send / markRead) and rebuilt from the partial index
+ * idx_notifications_unread_last_message (V25) at startup and periodically (drift, other nodes).
+ * Reading a count never touches in_app_notifications.
+ * Changes committed while a rebuild runs are neither lost nor counted twice (see RebuildableState);
+ * a count that still drifts below zero (e.g. a read counted twice) reads as 0 until the next rebuild.
+ */
+@Component
+public class UnreadCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(UnreadCounters.class);
+
+    private final JdbcTemplate jdbc;
+    private final RebuildableState<Map<Long, AtomicLong>> byUser;
+
+    public UnreadCounters(JdbcTemplate jdbc, PlatformTransactionManager txManager) {
+        this.jdbc = jdbc;
+        this.byUser = new RebuildableState<>(jdbc, txManager, new ConcurrentHashMap<>());
+    }
+
+    public long get(Long userId) {
+        AtomicLong c = byUser.current().get(userId);
+        return c == null ? 0 : Math.max(0, c.get());
+    }
+
+    /**
+     * Applied after commit when called inside a transaction.
+     */
+    public void add(Long userId, long delta) {
+        if (userId == null || delta == 0) return;
+        byUser.apply(m -> m.computeIfAbsent(userId, k -> new AtomicLong()).addAndGet(delta));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    // every 15 minutes
+    @Scheduled(fixedDelay = 900_000, initialDelay = 900_000)
+    public void rebuild() {
+        Map<Long, AtomicLong> fresh = byUser.rebuild(this::load);
+        log.debug("Unread notification counters rebuilt for {} users", fresh.size());
+    }
+
+    private Map<Long, AtomicLong> load() {
+        Map<Long, AtomicLong> fresh = new ConcurrentHashMap<>();
+        jdbc.query("""
+                select user_id, count(*) as n
+                from in_app_notifications
+                where read_at is null and user_id is not null
+                group by user_id
+                """, rs -> {
+            fresh.put(rs.getLong("user_id"), new AtomicLong(rs.getLong("n")));
+        });
+        return fresh;
+    }
+}
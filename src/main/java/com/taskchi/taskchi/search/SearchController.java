@@ -0,0 +1,57 @@
+package com.taskchi.taskchi.search;
+
+import com.taskchi.taskchi.auth.CurrentUser;
+import com.taskchi.taskchi.users.User;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private static final int MAX_WORDS = 6;
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 50;
+
+    private final SearchRepository repo;
+    private final CurrentUser currentUser;
+
+    public SearchController(SearchRepository repo, CurrentUser currentUser) {
+        this.repo = repo;
+        this.currentUser = currentUser;
+    }
+
+    /**
+     * جستجو در عنوان تسک‌ها، پیام‌های تسک و یادداشت/نتیجه‌ی جلسات.
+     * همه‌ی کلمات باید پیدا شوند؛ ی/ي، ک/ك، نیم‌فاصله و اعراب یکسان در نظر گرفته می‌شوند.
+     */
+    @GetMapping
+    public List<SearchRepository.SearchHit> search(@RequestParam String q,
+                                                   @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit,
+                                                   Authentication auth) {
+        User me = currentUser.requireUser(auth);
+
+        String query = q == null ? "" : q.trim();
+        if (query.length() < 2) {
+            throw new IllegalArgumentException("q must be at least 2 characters");
+        }
+        if (query.length() > 200) {
+            throw new IllegalArgumentException("q is too long");
+        }
+
+        // ZWNJ is a word separator after normalisation, so split on it too
+        List<String> words = Arrays.stream(query.split("[\\s\\u200C]+"))
+                .filter(w -> !w.isBlank())
+                .limit(MAX_WORDS)
+                .toList();
+        if (words.isEmpty()) {
+            throw new IllegalArgumentException("q must be at least 2 characters");
+        }
+
+        int size = limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        return repo.search(me.getId(), me.isAdmin(), query, words, size);
+    }
+}
@@ -0,0 +1,120 @@
+package com.taskchi.taskchi.search;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Search over task titles, task messages and meeting notes.
+ * Matching runs on taskchi_search_norm(...) (see V14), which has trigram GIN indexes on all three tables,
+ * so every word of the query becomes an indexed "contains" filter. Ranking is word_similarity of the whole query.
+ */
+@Repository
+public class SearchRepository {
+
+    public record SearchHit(
+            String kind, // TASK | TASK_MESSAGE | MEETING
+            Long id,
+            Long taskId,
+            Long meetingId,
+            String title,
+            String snippet,
+            double score,
+            OffsetDateTime createdAt
+    ) {}
+
+    private static final String MEETING_TEXT =
+            "(coalesce(m.title, '') || ' ' || coalesce(m.content, '') || ' ' || coalesce(m.outcome, ''))";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public SearchRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * words: already split, non-empty. Visibility:
+     * - tasks/messages: admin sees all, others only tasks they are assignee or creator of (TaskMessageController.canAccessTask)
+     * - meetings: owner only
+     */
+    public List<SearchHit> search(Long userId, boolean admin, String query, List<String> words, int limit) {
+        MapSqlParameterSource p = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("q", query)
+                .addValue("limit", limit);
+        for (int i = 0; i < words.size(); i++) {
+            p.addValue("w" + i, likeContains(words.get(i)));
+        }
+
+        String taskAccess = admin ? "true" : "(t.assigned_to_id = :userId or t.created_by_id = :userId)";
+
+        String sql = """
+                select * from (
+                    (select 'TASK' as kind, t.id, t.id as task_id, null::bigint as meeting_id,
+                            t.title, null::text as snippet,
+                            word_similarity(taskchi_search_norm(:q), taskchi_search_norm(t.title)) as score,
+                            t.created_at
+                     from tasks t
+                     where %1$s %2$s
+                     order by score desc, t.created_at desc
+                     limit :limit)
+                    union all
+                    (select 'TASK_MESSAGE', tm.id, t.id, null::bigint,
+                            t.title, left(tm.body, 200),
+                            word_similarity(taskchi_search_norm(:q), taskchi_search_norm(tm.body)),
+                            tm.created_at
+                     from task_messages tm
+                     join tasks t on t.id = tm.task_id
+                     where %1$s %3$s
+                     order by 7 desc, tm.created_at desc
+                     limit :limit)
+                    union all
+                    (select 'MEETING', m.id, null::bigint, m.id,
+                            m.title, left(coalesce(m.outcome, m.content), 200),
+                            word_similarity(taskchi_search_norm(:q), taskchi_search_norm(%4$s)),
+                            m.created_at
+                     from meetings m
+                     where m.created_by_id = :userId %5$s
+                     order by 7 desc, m.created_at desc
+                     limit :limit)
+                ) hits
+                order by score desc, created_at desc
+                limit :limit
+                """.formatted(
+                taskAccess,
+                matchAll("t.title", words.size()),
+                matchAll("tm.body", words.size()),
+                MEETING_TEXT,
+                matchAll(MEETING_TEXT, words.size())
+        );
+
+        return jdbc.query(sql, p, (rs, i) -> new SearchHit(
+                rs.getString("kind"),
+                rs.getLong("id"),
+                rs.getObject("task_id", Long.class),
+                rs.getObject("meeting_id", Long.class),
+                rs.getString("title"),
+                rs.getString("snippet"),
+                rs.getDouble("score"),
+                rs.getObject("created_at", OffsetDateTime.class)
+        ));
+    }
+
+    private static String matchAll(String column, int words) {
+        List<String> parts = new ArrayList<>(words);
+        for (int i = 0; i < words; i++) {
+            parts.add("and taskchi_search_norm(" + column + ") like taskchi_search_norm(:w" + i + ")");
+        }
+        return String.join(" ", parts);
+    }
+
+    // %word% with LIKE wildcards in the word itself escaped
+    private static String likeContains(String word) {
+        String escaped = word.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,51 @@
+package com.taskchi.taskchi.tasks;
+
+import com.taskchi.taskchi.auth.CurrentUser;
+import com.taskchi.taskchi.users.User;
+import com.taskchi.taskchi.users.UserHierarchyService;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Set;
+
+/**
+ * Task counters by status/priority + overdue + close-requested, served from TaskCounters (no scan of tasks).
+ * - scope=me: tasks assigned to me
+ * - scope=team: tasks assigned to me or anyone in my subtree
+ * - scope=all: every assigned task (ADMIN only)
+ */
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    private final TaskCounters counters;
+    private final UserHierarchyService hierarchy;
+    private final CurrentUser currentUser;
+
+    public DashboardController(TaskCounters counters, UserHierarchyService hierarchy, CurrentUser currentUser) {
+        this.counters = counters;
+        this.hierarchy = hierarchy;
+        this.currentUser = currentUser;
+    }
+
+    public record DashboardDto(String scope, Integer users, TaskCounters.Summary tasks) {}
+
+    @GetMapping("/tasks")
+    public DashboardDto tasks(@RequestParam(defaultValue = "me") String scope, Authentication auth) {
+        User me = currentUser.requireUser(auth);
+
+        return switch (scope) {
+            case "me" -> new DashboardDto(scope, 1, counters.summarize(Set.of(me.getId())));
+            case "team" -> {
+                Set<Long> ids = hierarchy.subtreeIds(me.getId());
+                yield new DashboardDto(scope, ids.size(), counters.summarize(ids));
+            }
+            case "all" -> {
+                if (!me.isAdmin()) throw new AccessDeniedException("Only admin can see all");
+                yield new DashboardDto(scope, null, counters.summarize(null));
+            }
+            default -> throw new IllegalArgumentException("scope must be me|team|all");
+        };
+    }
+}
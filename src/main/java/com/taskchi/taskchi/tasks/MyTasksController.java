@@ -1,8 +1,12 @@
 package com.taskchi.taskchi.tasks;
 
 import com.taskchi.taskchi.auth.CurrentUser;
+import com.taskchi.taskchi.common.CursorPage;
+import com.taskchi.taskchi.common.KeysetCursor;
+import com.taskchi.taskchi.common.UserChangeVersions;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -10,25 +14,52 @@ import java.util.List;
 @RequestMapping("/api/me/tasks")
 public class MyTasksController {
 
-    private final TaskRepository repo;
+    private final TaskReadRepository reads;
     private final CurrentUser currentUser;
-    private final TaskController taskController; // فقط برای toDto
+    private final UserChangeVersions versions;
 
-    public MyTasksController(TaskRepository repo, CurrentUser currentUser, TaskController taskController) {
-        this.repo = repo;
+    public MyTasksController(TaskReadRepository reads, CurrentUser currentUser, UserChangeVersions versions) {
+        this.reads = reads;
         this.currentUser = currentUser;
-        this.taskController = taskController;
+        this.versions = versions;
     }
 
     @GetMapping
-    public List<TaskController.TaskDto> myTasks(@RequestParam String type, Authentication auth) {
+    public CursorPage<TaskController.TaskDto> myTasks(@RequestParam String type,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit,
+                                                      Authentication auth,
+                                                      WebRequest request) {
         var me = currentUser.requireUser(auth);
+        // the team list changes with every subordinate's tasks, which don't touch my version: no ETag there
+        if (!"team".equals(type) && request.checkNotModified(versions.etag(me.getId()))) return null;
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int size = CursorPage.clampLimit(limit);
+
+        List<TaskReadRepository.TaskRow> rows = switch (type) {
+            case "visible" -> reads.visiblePage(me.getId(), after, size + 1);
+            case "assigned" -> reads.assignedPage(me.getId(), after, size + 1);
+            case "created" -> reads.createdPage(me.getId(), after, size + 1);
+            case "done" -> reads.donePage(me.getId(), after, size + 1);
+            case "team" -> reads.teamPage(me.getId(), after, size + 1);
+            default -> throw new IllegalArgumentException("type must be visible|assigned|created|done|team");
+        };
+        return CursorPage.of(rows, size, TaskReadRepository.TaskRow::position, TaskReadRepository.TaskRow::dto);
+    }
+
+    /**
+     * Legacy full list (no paging). Only on explicit opt-in: ?unpaged=true
+     */
+    @GetMapping(params = "unpaged=true")
+    public List<TaskController.TaskDto> myTasksUnpaged(@RequestParam String type, Authentication auth, WebRequest request) {
+        var me = currentUser.requireUser(auth);
+        if (request.checkNotModified(versions.etag(me.getId()))) return null;
 
         return switch (type) {
-            case "visible" -> repo.findVisible(me.getId()).stream().map(taskController::toDto).toList();
-            case "assigned" -> repo.findAssignedTo(me.getId()).stream().map(taskController::toDto).toList();
-            case "created" -> repo.findCreatedBy(me.getId()).stream().map(taskController::toDto).toList();
-            case "done" -> repo.findDoneBy(me.getId()).stream().map(taskController::toDto).toList();
+            case "visible" -> reads.visible(me.getId());
+            case "assigned" -> reads.assigned(me.getId());
+            case "created" -> reads.created(me.getId());
+            case "done" -> reads.done(me.getId());
             default -> throw new IllegalArgumentException("type must be visible|assigned|created|done");
         };
     }
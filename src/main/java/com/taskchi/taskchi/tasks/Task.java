@@ -18,7 +18,8 @@ import java.time.LocalDate;
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 200)
@@ -66,4 +67,9 @@ public class Task {
 
     @Column(nullable = false)
     private Instant createdAt = Instant.now();
+
+    // Optimistic locking; also sent to clients as the task's ETag
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
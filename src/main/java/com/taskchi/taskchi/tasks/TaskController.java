@@ -2,22 +2,36 @@
 package com.taskchi.taskchi.tasks;
 
 import com.taskchi.taskchi.auth.CurrentUser;
-import com.taskchi.taskchi.notification.InAppNotification;
-import com.taskchi.taskchi.notification.InAppNotificationRepository;
+import com.taskchi.taskchi.common.CursorPage;
+import com.taskchi.taskchi.common.IfMatch;
+import com.taskchi.taskchi.common.KeysetCursor;
+import com.taskchi.taskchi.common.UserChangeVersions;
+import com.taskchi.taskchi.notification.NotificationOutbox;
 import com.taskchi.taskchi.users.User;
 import com.taskchi.taskchi.users.UserHierarchyService;
 import com.taskchi.taskchi.users.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -25,21 +39,40 @@ import java.util.List;
 public class TaskController {
 
     private final TaskRepository repo;
+    private final TaskReadRepository reads;
     private final UserRepository userRepo;
     private final UserHierarchyService hierarchy;
     private final CurrentUser currentUser;
-    private final InAppNotificationRepository notifRepo;
+    private final NotificationOutbox outbox;
+    private final UserChangeVersions versions;
+    private final TaskCounters counters;
+    private final EntityManager em;
+    private final TransactionTemplate bulkItemTx;
+    private final int bulkMax;
 
     public TaskController(TaskRepository repo,
+                          TaskReadRepository reads,
                           UserRepository userRepo,
                           UserHierarchyService hierarchy,
                           CurrentUser currentUser,
-                          InAppNotificationRepository notifRepo) {
+                          NotificationOutbox outbox,
+                          UserChangeVersions versions,
+                          TaskCounters counters,
+                          EntityManager em,
+                          PlatformTransactionManager txManager,
+                          @Value("${taskchi.tasks.bulk-max:100}") int bulkMax) {
         this.repo = repo;
+        this.reads = reads;
         this.userRepo = userRepo;
         this.hierarchy = hierarchy;
         this.currentUser = currentUser;
-        this.notifRepo = notifRepo;
+        this.outbox = outbox;
+        this.versions = versions;
+        this.counters = counters;
+        this.em = em;
+        this.bulkItemTx = new TransactionTemplate(txManager);
+        this.bulkItemTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        this.bulkMax = bulkMax;
     }
 
     public record TaskDto(
@@ -58,7 +91,8 @@ public class TaskController {
             Instant closeRequestedAt,
             Instant closedAt,
             Long closedById,
-            String closedByName
+            String closedByName,
+            Long version
     ) {}
 
     public TaskDto toDto(Task t) {
@@ -87,37 +121,261 @@ public class TaskController {
                 t.getCloseRequestedAt(),
                 t.getClosedAt(),
                 closedById,
-                closedByName
+                closedByName,
+                t.getVersion()
         );
     }
 
+    /**
+     * Single-task responses carry the task version as ETag (send it back as If-Match).
+     */
+    private static ResponseEntity<TaskDto> withEtag(TaskDto dto) {
+        return ResponseEntity.ok().eTag(IfMatch.etag(dto.version())).body(dto);
+    }
+
+    /**
+     * Visible tasks, newest first, one page at a time. Pass the previous response's next as cursor.
+     */
     @GetMapping
-    @Transactional(readOnly = true)
-    public List<TaskDto> list(Authentication auth) {
+    public CursorPage<TaskDto> list(@RequestParam(required = false) String cursor,
+                                    @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit,
+                                    Authentication auth,
+                                    WebRequest request) {
+        User me = currentUser.requireUser(auth);
+        if (request.checkNotModified(versions.etag(me.getId()))) return null;
+        int size = CursorPage.clampLimit(limit);
+        List<TaskReadRepository.TaskRow> rows = reads.visiblePage(me.getId(), KeysetCursor.decode(cursor), size + 1);
+        return CursorPage.of(rows, size, TaskReadRepository.TaskRow::position, TaskReadRepository.TaskRow::dto);
+    }
+
+    /**
+     * Legacy full list (loads every visible task). Only on explicit opt-in: ?unpaged=true
+     */
+    @GetMapping(params = "unpaged=true")
+    public List<TaskDto> listUnpaged(Authentication auth, WebRequest request) {
         User me = currentUser.requireUser(auth);
-        return repo.findVisible(me.getId()).stream().map(this::toDto).toList();
+        if (request.checkNotModified(versions.etag(me.getId()))) return null;
+        return reads.visible(me.getId());
     }
 
     @PostMapping
     @Transactional
-    public TaskDto create(@RequestBody Task body, Authentication auth) {
+    public ResponseEntity<TaskDto> create(@RequestBody Task body, Authentication auth) {
         User me = currentUser.requireUser(auth);
+        return withEtag(doCreate(me, body, new AssigneeChecks(me)));
+    }
 
-        if (body.getAssignedTo() == null || body.getAssignedTo().getId() == null) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "assignedTo.id is required");
+    @PatchMapping("/{id}")
+    @Transactional
+    public ResponseEntity<TaskDto> patch(@PathVariable Long id,
+                                         @RequestBody TaskPatchRequest req,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                         Authentication auth) {
+        User me = currentUser.requireUser(auth);
+        return withEtag(doPatch(me, id, req, ifMatch, new AssigneeChecks(me)));
+    }
+
+    @PostMapping("/{id}/request-close")
+    @Transactional
+    public ResponseEntity<TaskDto> requestClose(@PathVariable Long id,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                Authentication auth) {
+        User me = currentUser.requireUser(auth);
+
+        Task t = repo.findByIdWithPeople(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "task not found"));
+
+        boolean isAssignee = t.getAssignedTo() != null && t.getAssignedTo().getId().equals(me.getId());
+        if (!(me.isAdmin() || isAssignee)) {
+            throw new AccessDeniedException("Only assignee can request close");
         }
 
-        User assignee = userRepo.findById(body.getAssignedTo().getId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "assignee not found"));
+        IfMatch.check(ifMatch, t.getVersion());
 
-        if (assignee.isAdmin() && !assignee.getId().equals(me.getId())) {
-            throw new AccessDeniedException("Cannot assign tasks to admin");
+        if (t.getStatus() == TaskStatus.DONE) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Task is already closed");
         }
 
-        if (!me.isAdmin()) {
-            boolean canAssign = hierarchy.isManagerOf(me.getId(), assignee.getId()) || me.getId().equals(assignee.getId());
-            if (!canAssign) throw new AccessDeniedException("Not allowed to assign to this user");
+        TaskCounters.Facts before = TaskCounters.Facts.of(t);
+        User creator = t.getCreatedBy();
+        String title = t.getTitle();
+
+        // Atomic: of two concurrent requests only one flips the flag; only that one notifies and moves counters.
+        // With If-Match the update also requires the checked version: an edit in between is a 412, not overwritten.
+        Long expected = IfMatch.expected(ifMatch, t.getVersion());
+        boolean flipped = !t.isCloseRequested()
+                && repo.markCloseRequested(id, Instant.now(), TaskStatus.DONE, expected) == 1;
+        if (!flipped) {
+            Task current = reload(id);
+            if (expected != null && !t.isCloseRequested()) IfMatch.check(ifMatch, current.getVersion());
+            if (current.getStatus() == TaskStatus.DONE) {
+                // closed concurrently
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Task is already closed");
+            }
+            return withEtag(toDto(current));
+        }
+
+        if (creator != null && !creator.getId().equals(me.getId())) {
+            outbox.enqueue("task:" + id + ":close-request:" + t.getVersion(),
+                    "TASK_CLOSE_REQUEST",
+                    "درخواست بستن تسک: " + safe(title),
+                    "" + safe(me.getFullName()) + " درخواست بستن این تسک را ثبت کرد.\nبرای بستن نهایی، تسک را باز کن.",
+                    id, null, List.of(creator.getId()));
+        }
+
+        Task saved = reload(id);
+        counters.apply(before, TaskCounters.Facts.of(saved));
+        touchPeople(saved);
+        return withEtag(toDto(saved));
+    }
+
+    @PostMapping("/{id}/close")
+    @Transactional
+    public ResponseEntity<TaskDto> close(@PathVariable Long id,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                         Authentication auth) {
+        User me = currentUser.requireUser(auth);
+        return withEtag(doClose(me, id, ifMatch));
+    }
+
+    @DeleteMapping("/{id}")
+    @Transactional
+    public ResponseEntity<Void> delete(@PathVariable Long id,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                       Authentication auth) {
+        User me = currentUser.requireUser(auth);
+        doDelete(me, id, ifMatch);
+        return ResponseEntity.noContent().build();
+    }
+
+    // ---------------- bulk ----------------
+
+    /**
+     * One item of a bulk request.
+     * op=create uses task, op=patch uses id + patch, op=close/delete use id.
+     * version (optional) works like the If-Match header of the single-item call.
+     */
+    public record BulkOperation(String op, Long id, Long version, Task task, TaskPatchRequest patch) {
+        String ifMatch() {
+            return version == null ? null : version.toString();
+        }
+    }
+
+    public record BulkRequest(List<BulkOperation> operations) {}
+
+    /**
+     * status is the HTTP status the same single-item call would have returned.
+     */
+    public record BulkItemResult(int index, String op, int status, String error, TaskDto task) {}
+
+    /**
+     * Runs up to taskchi.tasks.bulk-max create/patch/close/delete operations in one transaction.
+     * Each item follows exactly the same rules as its single-item endpoint; a rejected item
+     * doesn't stop the others. Assignee lookups/hierarchy checks are done once per distinct assignee.
+     * Every item runs in its own savepoint and flushes before it returns, so an item that fails in the
+     * database (e.g. a concurrent edit: 412) is rolled back alone.
+     */
+    @PostMapping("/bulk")
+    @Transactional
+    public List<BulkItemResult> bulk(@RequestBody BulkRequest req, Authentication auth) {
+        User me = currentUser.requireUser(auth);
+
+        if (req == null || req.operations() == null || req.operations().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "operations is required");
+        }
+        if (req.operations().size() > bulkMax) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "at most " + bulkMax + " operations per request");
+        }
+
+        AssigneeChecks checks = new AssigneeChecks(me);
+        List<BulkItemResult> out = new ArrayList<>(req.operations().size());
+
+        for (int i = 0; i < req.operations().size(); i++) {
+            BulkOperation op = req.operations().get(i);
+            String kind = op == null ? null : op.op();
+            try {
+                if (op == null || kind == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "op is required");
+                }
+                TaskDto dto = bulkItemTx.execute(s -> switch (kind) {
+                    case "create" -> {
+                        if (op.task() == null) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "task is required");
+                        yield doCreate(me, op.task(), checks);
+                    }
+                    case "patch" -> doPatch(me, requireId(op), op.patch(), op.ifMatch(), checks);
+                    case "close" -> doClose(me, requireId(op), op.ifMatch());
+                    case "delete" -> {
+                        doDelete(me, requireId(op), op.ifMatch());
+                        yield null;
+                    }
+                    default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "op must be create|patch|close|delete");
+                });
+                out.add(new BulkItemResult(i, kind, kind.equals("delete") ? 204 : 200, null, dto));
+            } catch (ResponseStatusException e) {
+                out.add(new BulkItemResult(i, kind, e.getStatusCode().value(), e.getReason(), null));
+            } catch (AccessDeniedException e) {
+                out.add(new BulkItemResult(i, kind, HttpStatus.FORBIDDEN.value(), e.getMessage(), null));
+            } catch (OptimisticLockingFailureException e) {
+                // rolled back to the item's savepoint; drop its stale entity (earlier items are flushed already)
+                em.clear();
+                out.add(new BulkItemResult(i, kind, HttpStatus.PRECONDITION_FAILED.value(),
+                        "Resource was modified concurrently", null));
+            }
+        }
+
+        return out;
+    }
+
+    private static Long requireId(BulkOperation op) {
+        if (op.id() == null) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "id is required");
+        return op.id();
+    }
+
+    // ---------------- shared single-item logic ----------------
+    // NOTE: every check runs before the first mutation of a managed Task, so a rejected bulk item
+    // never leaves dirty state behind to be flushed with the others.
+
+    /**
+     * Caches assignee lookups and "may I assign to X" answers for one caller.
+     * Single-item calls use a fresh instance; bulk shares one across all items.
+     */
+    private final class AssigneeChecks {
+        private final User me;
+        private final Map<Long, User> assignees = new HashMap<>();
+        private final Map<Long, Boolean> canAssign = new HashMap<>();
+
+        AssigneeChecks(User me) {
+            this.me = me;
+        }
+
+        User resolve(Long assigneeId) {
+            User assignee = assignees.get(assigneeId);
+            if (assignee == null) {
+                assignee = userRepo.findById(assigneeId)
+                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "assignee not found"));
+                assignees.put(assigneeId, assignee);
+            }
+
+            if (assignee.isAdmin() && !assignee.getId().equals(me.getId())) {
+                throw new AccessDeniedException("Cannot assign tasks to admin");
+            }
+
+            if (!me.isAdmin()) {
+                boolean allowed = canAssign.computeIfAbsent(assigneeId,
+                        aid -> hierarchy.isManagerOf(me.getId(), aid) || me.getId().equals(aid));
+                if (!allowed) throw new AccessDeniedException("Not allowed to assign to this user");
+            }
+
+            return assignee;
         }
+    }
+
+    private TaskDto doCreate(User me, Task body, AssigneeChecks checks) {
+        if (body.getAssignedTo() == null || body.getAssignedTo().getId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "assignedTo.id is required");
+        }
+
+        User assignee = checks.resolve(body.getAssignedTo().getId());
 
         Task t = new Task();
         t.setTitle(body.getTitle());
@@ -139,15 +397,14 @@ public class TaskController {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "followUpAt is required when followUpEnabled=true");
         }
 
-        Task saved = repo.save(t);
+        // flushed before the counters see it (bulk: the item's savepoint must contain all of its writes)
+        Task saved = repo.saveAndFlush(t);
+        counters.apply(null, TaskCounters.Facts.of(saved));
+        touchPeople(saved);
         return toDto(saved);
     }
 
-    @PatchMapping("/{id}")
-    @Transactional
-    public TaskDto patch(@PathVariable Long id, @RequestBody TaskPatchRequest req, Authentication auth) {
-        User me = currentUser.requireUser(auth);
-
+    private TaskDto doPatch(User me, Long id, TaskPatchRequest req, String ifMatch, AssigneeChecks checks) {
         Task t = repo.findByIdWithPeople(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "task not found"));
 
@@ -158,6 +415,8 @@ public class TaskController {
             throw new AccessDeniedException("Not allowed to update this task");
         }
 
+        IfMatch.check(ifMatch, t.getVersion());
+
         if (req == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "body is required");
         }
@@ -170,96 +429,55 @@ public class TaskController {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Only creator can close task (use /api/tasks/{id}/close)");
         }
 
+        TaskCounters.Facts before = TaskCounters.Facts.of(t);
+
         if (isAssignee && !me.isAdmin() && !isCreator) {
-            if (req.getStatus() != null) {
-                t.setStatus(req.getStatus());
-            }
             if (req.getPriority() != null || req.getAssigneeId() != null
                     || req.getFollowUpEnabled() != null || req.getFollowUpAt() != null) {
                 throw new AccessDeniedException("Assignee can only update status");
             }
-        } else {
-            if (req.getStatus() != null) t.setStatus(req.getStatus());
-            if (req.getPriority() != null) t.setPriority(req.getPriority());
-
-            if (req.getAssigneeId() != null) {
-                User assignee = userRepo.findById(req.getAssigneeId())
-                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "assignee not found"));
-
-                if (assignee.isAdmin() && !assignee.getId().equals(me.getId())) {
-                    throw new AccessDeniedException("Cannot assign tasks to admin");
-                }
-
-                if (!me.isAdmin()) {
-                    boolean canAssign = hierarchy.isManagerOf(me.getId(), assignee.getId()) || me.getId().equals(assignee.getId());
-                    if (!canAssign) throw new AccessDeniedException("Not allowed to assign to this user");
-                }
-
-                t.setAssignedTo(assignee);
+            if (req.getStatus() != null) {
+                t.setStatus(req.getStatus());
             }
+        } else {
+            User assignee = req.getAssigneeId() != null ? checks.resolve(req.getAssigneeId()) : null;
 
+            boolean followUpEnabled = t.isFollowUpEnabled();
+            Instant followUpAt = t.getFollowUpAt();
             if (req.getFollowUpEnabled() != null) {
-                boolean enabled = Boolean.TRUE.equals(req.getFollowUpEnabled());
-                t.setFollowUpEnabled(enabled);
-                if (!enabled) {
-                    t.setFollowUpAt(null);
+                followUpEnabled = Boolean.TRUE.equals(req.getFollowUpEnabled());
+                if (!followUpEnabled) {
+                    followUpAt = null;
                 }
             }
             if (req.getFollowUpAt() != null) {
-                t.setFollowUpAt(req.getFollowUpAt());
-                t.setFollowUpEnabled(true);
+                followUpAt = req.getFollowUpAt();
+                followUpEnabled = true;
             }
 
-            if (t.isFollowUpEnabled() && t.getFollowUpAt() == null) {
+            if (followUpEnabled && followUpAt == null) {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "followUpAt is required when followUpEnabled=true");
             }
-        }
-
-        Task saved = repo.save(t);
-        return toDto(saved);
-    }
 
-    @PostMapping("/{id}/request-close")
-    @Transactional
-    public TaskDto requestClose(@PathVariable Long id, Authentication auth) {
-        User me = currentUser.requireUser(auth);
-
-        Task t = repo.findByIdWithPeople(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "task not found"));
-
-        boolean isAssignee = t.getAssignedTo() != null && t.getAssignedTo().getId().equals(me.getId());
-        if (!(me.isAdmin() || isAssignee)) {
-            throw new AccessDeniedException("Only assignee can request close");
-        }
-
-        if (t.getStatus() == TaskStatus.DONE) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Task is already closed");
-        }
-
-        if (!t.isCloseRequested()) {
-            t.setCloseRequested(true);
-            t.setCloseRequestedAt(Instant.now());
-
-            if (t.getCreatedBy() != null && !t.getCreatedBy().getId().equals(me.getId())) {
-                InAppNotification n = new InAppNotification();
-                n.setType("TASK_CLOSE_REQUEST");
-                n.setUser(t.getCreatedBy());
-                n.setTaskId(t.getId());
-                n.setTitle("درخواست بستن تسک: " + safe(t.getTitle()));
-                n.setMessage("" + safe(me.getFullName()) + " درخواست بستن این تسک را ثبت کرد.\nبرای بستن نهایی، تسک را باز کن.");
-                notifRepo.save(n);
+            if (req.getStatus() != null) t.setStatus(req.getStatus());
+            if (req.getPriority() != null) t.setPriority(req.getPriority());
+            if (assignee != null) {
+                // the previous assignee loses the task from their lists
+                if (t.getAssignedTo() != null) versions.touch(t.getAssignedTo().getId());
+                t.setAssignedTo(assignee);
             }
+            t.setFollowUpEnabled(followUpEnabled);
+            t.setFollowUpAt(followUpAt);
         }
 
-        Task saved = repo.save(t);
+        // flush so the returned version/ETag is the new one
+        Task saved = repo.saveAndFlush(t);
+        counters.apply(before, TaskCounters.Facts.of(saved));
+        touchPeople(saved);
         return toDto(saved);
     }
 
-    @PostMapping("/{id}/close")
-    @Transactional
-    public TaskDto close(@PathVariable Long id, Authentication auth) {
-        User me = currentUser.requireUser(auth);
-
+    private TaskDto doClose(User me, Long id, String ifMatch) {
         Task t = repo.findByIdWithPeople(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "task not found"));
 
@@ -270,44 +488,57 @@ public class TaskController {
             throw new AccessDeniedException("Only creator or admin can close task");
         }
 
+        IfMatch.check(ifMatch, t.getVersion());
+
         if (t.getStatus() == TaskStatus.DONE) {
             return toDto(t);
         }
 
+        boolean selfTask = isCreator && isAssignee;
         if (!me.isAdmin()) {
-            boolean selfTask = isCreator && isAssignee;
             if (!selfTask && !t.isCloseRequested()) {
                 throw new ResponseStatusException(HttpStatus.CONFLICT, "Assignee must request close first");
             }
         }
 
-        t.setStatus(TaskStatus.DONE);
-        t.setClosedAt(Instant.now());
-        t.setClosedBy(me);
-        if (!t.isCloseRequested()) {
-            t.setCloseRequested(true);
-            t.setCloseRequestedAt(Instant.now());
+        TaskCounters.Facts before = TaskCounters.Facts.of(t);
+        User assignee = t.getAssignedTo();
+        String title = t.getTitle();
+
+        // Atomic: of two concurrent closes only one succeeds and notifies the assignee.
+        boolean force = me.isAdmin() || selfTask;
+        // With If-Match the update also requires the checked version (see requestClose)
+        Long expected = IfMatch.expected(ifMatch, t.getVersion());
+        if (repo.markClosed(id, Instant.now(), me, force, TaskStatus.DONE, expected) == 0) {
+            Task current = reload(id);
+            // edited between the If-Match check and the update
+            IfMatch.check(ifMatch, current.getVersion());
+            if (current.getStatus() == TaskStatus.DONE) {
+                return toDto(current); // closed concurrently, same answer as closing an already closed task
+            }
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Assignee must request close first");
         }
 
-        if (t.getAssignedTo() != null && !t.getAssignedTo().getId().equals(me.getId())) {
-            InAppNotification n = new InAppNotification();
-            n.setType("TASK_CLOSED");
-            n.setUser(t.getAssignedTo());
-            n.setTaskId(t.getId());
-            n.setTitle("تسک بسته شد: " + safe(t.getTitle()));
-            n.setMessage("" + safe(me.getFullName()) + " این تسک را بست.");
-            notifRepo.save(n);
+        if (assignee != null && !assignee.getId().equals(me.getId())) {
+            outbox.enqueue("task:" + id + ":closed:" + t.getVersion(),
+                    "TASK_CLOSED",
+                    "تسک بسته شد: " + safe(title),
+                    "" + safe(me.getFullName()) + " این تسک را بست.",
+                    id, null, List.of(assignee.getId()));
         }
 
-        Task saved = repo.save(t);
+        Task saved = reload(id);
+        counters.apply(before, TaskCounters.Facts.of(saved));
+        touchPeople(saved);
         return toDto(saved);
     }
 
-    @DeleteMapping("/{id}")
-    @Transactional
-    public ResponseEntity<Void> delete(@PathVariable Long id, Authentication auth) {
-        User me = currentUser.requireUser(auth);
+    private Task reload(Long id) {
+        return repo.findByIdWithPeople(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "task not found"));
+    }
 
+    private void doDelete(User me, Long id, String ifMatch) {
         Task t = repo.findByIdWithPeople(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "task not found"));
 
@@ -315,8 +546,22 @@ public class TaskController {
             throw new AccessDeniedException("Only creator or admin can delete task");
         }
 
+        IfMatch.check(ifMatch, t.getVersion());
+
         repo.delete(t);
-        return ResponseEntity.noContent().build();
+        repo.flush();
+        counters.apply(TaskCounters.Facts.of(t), null);
+        touchPeople(t);
+    }
+
+    /**
+     * Assignee and creator see the task (and its notifications) in their lists.
+     */
+    private void touchPeople(Task t) {
+        versions.touch(
+                t.getAssignedTo() != null ? t.getAssignedTo().getId() : null,
+                t.getCreatedBy() != null ? t.getCreatedBy().getId() : null
+        );
     }
 
     private static String safe(String s) {
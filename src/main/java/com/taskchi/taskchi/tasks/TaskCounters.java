@@ -0,0 +1,177 @@
+package com.taskchi.taskchi.tasks;
+
+import com.taskchi.taskchi.common.RebuildableState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory task counters per assignee, for the dashboard.
+ * Kept up to date by TaskController (create/patch/close/reassign/delete) through apply(before, after),
+ * and rebuilt from one GROUP BY over tasks at startup and periodically (to repair any drift,
+ * e.g. writes from another node). Reading a dashboard never touches the tasks table.
+ * Changes committed while a rebuild runs are neither lost nor counted twice (see RebuildableState).
+ */
+@Component
+public class TaskCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskCounters.class);
+
+    /**
+     * The parts of a task that the counters depend on. null = "task doesn't exist" (before create / after delete).
+     */
+    public record Facts(Long assigneeId, TaskStatus status, TaskPriority priority, LocalDate date, boolean closeRequested) {
+        public static Facts of(Task t) {
+            return new Facts(
+                    t.getAssignedTo() != null ? t.getAssignedTo().getId() : null,
+                    t.getStatus(),
+                    t.getPriority(),
+                    t.getDate(),
+                    t.isCloseRequested()
+            );
+        }
+
+        boolean open() {
+            return status != TaskStatus.DONE;
+        }
+    }
+
+    public record Summary(
+            Map<TaskStatus, Long> byStatus,
+            Map<TaskPriority, Long> openByPriority,
+            long overdue,
+            long closeRequested,
+            long total
+    ) {}
+
+    /**
+     * Counts for one assignee. Guarded by its own monitor.
+     */
+    static final class Counts {
+        final long[] byStatus = new long[TaskStatus.values().length];
+        final long[] openByPriority = new long[TaskPriority.values().length];
+        long closeRequested;
+        // open tasks per due date; overdue = everything strictly before today
+        final TreeMap<LocalDate, Long> openByDate = new TreeMap<>();
+
+        synchronized void add(Facts f, long n) {
+            if (f.status() != null) byStatus[f.status().ordinal()] += n;
+            if (!f.open()) return;
+            if (f.priority() != null) openByPriority[f.priority().ordinal()] += n;
+            if (f.closeRequested()) closeRequested += n;
+            if (f.date() != null) openByDate.merge(f.date(), n, (a, b) -> a + b == 0 ? null : a + b);
+        }
+
+        synchronized void addTo(long[] status, long[] priority, long[] overdueAndClose, LocalDate today) {
+            for (int i = 0; i < status.length; i++) status[i] += byStatus[i];
+            for (int i = 0; i < priority.length; i++) priority[i] += openByPriority[i];
+            for (long v : openByDate.headMap(today).values()) overdueAndClose[0] += v;
+            overdueAndClose[1] += closeRequested;
+        }
+    }
+
+    private final JdbcTemplate jdbc;
+    private final ZoneId zoneId;
+    private final RebuildableState<Map<Long, Counts>> byAssignee;
+
+    public TaskCounters(JdbcTemplate jdbc, PlatformTransactionManager txManager,
+                        @Value("${taskchi.default-zone:Asia/Tehran}") String zone) {
+        this.jdbc = jdbc;
+        this.zoneId = ZoneId.of(zone);
+        this.byAssignee = new RebuildableState<>(jdbc, txManager, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Records a task change; applied after commit when called inside a transaction.
+     */
+    public void apply(Facts before, Facts after) {
+        if (Objects.equals(before, after)) return;
+        byAssignee.apply(m -> {
+            if (before != null && before.assigneeId() != null) counts(m, before.assigneeId()).add(before, -1);
+            if (after != null && after.assigneeId() != null) counts(m, after.assigneeId()).add(after, 1);
+        });
+    }
+
+    /**
+     * Sum over the given assignees (one user, a subtree, or everyone when userIds is null).
+     */
+    public Summary summarize(Collection<Long> userIds) {
+        long[] status = new long[TaskStatus.values().length];
+        long[] priority = new long[TaskPriority.values().length];
+        long[] overdueAndClose = new long[2];
+        LocalDate today = LocalDate.now(zoneId);
+
+        Map<Long, Counts> m = byAssignee.current();
+        Collection<Counts> selected;
+        if (userIds == null) {
+            selected = m.values();
+        } else {
+            selected = new ArrayList<>(userIds.size());
+            for (Long id : userIds) {
+                Counts c = m.get(id);
+                if (c != null) selected.add(c);
+            }
+        }
+        for (Counts c : selected) c.addTo(status, priority, overdueAndClose, today);
+
+        Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+        long total = 0;
+        for (TaskStatus s : TaskStatus.values()) {
+            byStatus.put(s, status[s.ordinal()]);
+            total += status[s.ordinal()];
+        }
+        Map<TaskPriority, Long> byPriority = new EnumMap<>(TaskPriority.class);
+        for (TaskPriority p : TaskPriority.values()) byPriority.put(p, priority[p.ordinal()]);
+
+        return new Summary(byStatus, byPriority, overdueAndClose[0], overdueAndClose[1], total);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    // every 15 minutes
+    @Scheduled(fixedDelay = 900_000, initialDelay = 900_000)
+    public void rebuild() {
+        Map<Long, Counts> fresh = byAssignee.rebuild(this::load);
+        log.debug("Task counters rebuilt for {} assignees", fresh.size());
+    }
+
+    private Map<Long, Counts> load() {
+        Map<Long, Counts> fresh = new ConcurrentHashMap<>();
+        jdbc.query("""
+                select assigned_to_id, status, priority, date, close_requested, count(*) as n
+                from tasks
+                where assigned_to_id is not null
+                group by assigned_to_id, status, priority, date, close_requested
+                """, rs -> {
+            String status = rs.getString("status");
+            String priority = rs.getString("priority");
+            Facts f = new Facts(
+                    rs.getLong("assigned_to_id"),
+                    status == null ? null : TaskStatus.valueOf(status),
+                    priority == null ? null : TaskPriority.valueOf(priority),
+                    rs.getObject("date", LocalDate.class),
+                    rs.getBoolean("close_requested")
+            );
+            counts(fresh, f.assigneeId()).add(f, rs.getLong("n"));
+        });
+        return fresh;
+    }
+
+    private static Counts counts(Map<Long, Counts> m, Long userId) {
+        return m.computeIfAbsent(userId, k -> new Counts());
+    }
+}
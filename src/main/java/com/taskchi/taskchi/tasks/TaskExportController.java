@@ -0,0 +1,148 @@
+package com.taskchi.taskchi.tasks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskchi.taskchi.auth.CurrentUser;
+import com.taskchi.taskchi.users.User;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Export of tasks for reporting, streamed row by row (heap use doesn't grow with table size).
+ * - scope=visible: same rows as the "visible" list (assigned to me or created by me)
+ * - scope=all: every task (ADMIN only)
+ */
+@RestController
+@RequestMapping("/api/tasks/export")
+public class TaskExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    private static final String CSV_HEADER = "id,title,status,priority,date,assignedToId,assignedToName,"
+            + "createdById,createdByName,followUpEnabled,followUpAt,closeRequested,closeRequestedAt,"
+            + "closedAt,closedById,closedByName";
+
+    private final TaskReadRepository reads;
+    private final CurrentUser currentUser;
+    private final ObjectMapper mapper;
+    private final TransactionTemplate readOnlyTx;
+
+    public TaskExportController(TaskReadRepository reads,
+                                CurrentUser currentUser,
+                                ObjectMapper mapper,
+                                PlatformTransactionManager txManager) {
+        this.reads = reads;
+        this.currentUser = currentUser;
+        this.mapper = mapper;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format,
+                                                        @RequestParam(defaultValue = "visible") String scope,
+                                                        Authentication auth) {
+        User me = currentUser.requireUser(auth);
+
+        boolean all = switch (scope) {
+            case "visible" -> false;
+            case "all" -> true;
+            default -> throw new IllegalArgumentException("scope must be visible|all");
+        };
+        if (all && !me.isAdmin()) {
+            throw new AccessDeniedException("Only admin can export all tasks");
+        }
+
+        boolean csv = switch (format) {
+            case "ndjson" -> false;
+            case "csv" -> true;
+            default -> throw new IllegalArgumentException("format must be ndjson|csv");
+        };
+
+        Long meId = me.getId();
+        StreamingResponseBody body = out -> {
+            Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            if (csv) {
+                w.write('\uFEFF'); // BOM تا اکسل فارسی را درست نشان دهد
+                w.write(CSV_HEADER);
+                w.write('\n');
+            }
+            Consumer<TaskController.TaskDto> sink = dto -> writeRow(w, dto, csv);
+
+            // The streaming query runs here, on the async thread, inside its own read-only transaction.
+            readOnlyTx.executeWithoutResult(status -> {
+                if (all) reads.streamAll(sink);
+                else reads.streamVisible(meId, sink);
+            });
+            w.flush();
+        };
+
+        String filename = "tasks-" + LocalDate.now() + (csv ? ".csv" : ".ndjson");
+        return ResponseEntity.ok()
+                .contentType(csv ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    private void writeRow(Writer w, TaskController.TaskDto dto, boolean csv) {
+        try {
+            if (csv) {
+                w.write(toCsv(dto));
+            } else {
+                w.write(mapper.writeValueAsString(dto));
+            }
+            w.write('\n');
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String toCsv(TaskController.TaskDto t) {
+        return String.join(",",
+                cell(t.id()),
+                cell(t.title()),
+                cell(t.status()),
+                cell(t.priority()),
+                cell(t.date()),
+                cell(t.assignedToId()),
+                cell(t.assignedToName()),
+                cell(t.createdById()),
+                cell(t.createdByName()),
+                cell(t.followUpEnabled()),
+                cell(t.followUpAt()),
+                cell(t.closeRequested()),
+                cell(t.closeRequestedAt()),
+                cell(t.closedAt()),
+                cell(t.closedById()),
+                cell(t.closedByName())
+        );
+    }
+
+    private static String cell(Object v) {
+        if (v == null) return "";
+        String s = v.toString();
+        // user text starting like a formula would be evaluated by Excel: keep it text
+        if (v instanceof CharSequence && !s.isEmpty() && "=+-@\t\r".indexOf(s.charAt(0)) >= 0) s = "'" + s;
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,270 @@
+package com.taskchi.taskchi.tasks;
+
+import com.taskchi.taskchi.common.KeysetCursor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Read-only task lists. Selects exactly the TaskDto columns with plain JDBC,
+ * so list endpoints don't hydrate Task/User entities or pay for dirty checking.
+ * Writes still go through TaskRepository.
+ */
+@Repository
+public class TaskReadRepository {
+
+    /**
+     * A list row plus its keyset position (createdAt is not part of TaskDto).
+     */
+    public record TaskRow(TaskController.TaskDto dto, KeysetCursor position) {}
+
+    static final String COLUMNS = """
+            t.id, t.title, t.status, t.priority, t.date,
+            t.assigned_to_id, a.full_name as assigned_to_name,
+            t.created_by_id, c.full_name as created_by_name,
+            t.follow_up_enabled, t.follow_up_at,
+            t.close_requested, t.close_requested_at, t.closed_at,
+            t.closed_by_id, cb.full_name as closed_by_name,
+            t.version, t.created_at
+            """;
+
+    static final String PEOPLE_JOINS = """
+            left join users a on a.id = t.assigned_to_id
+            left join users c on c.id = t.created_by_id
+            left join users cb on cb.id = t.closed_by_id
+            """;
+
+    private static final String KEYSET = " and (t.created_at, t.id) < (:createdAt, :id)";
+    private static final String ORDER = " order by t.created_at desc, t.id desc";
+
+    // "Visible" = assigned to me OR created by me, as UNION ALL of two range scans, one per index (see V12),
+    // instead of an OR: the second branch skips rows the first one already returns, so no distinct is needed.
+    // The keyset bound and limit are pushed into each branch.
+    private static final String VISIBLE_PAGE = """
+            with v as (
+                select v.id from (
+                    (select t.id, t.created_at from tasks t
+                     where t.assigned_to_id = :userId
+                       and (t.created_at, t.id) < (:createdAt, :id)
+                     order by t.created_at desc, t.id desc
+                     limit :limit)
+                    union all
+                    (select t.id, t.created_at from tasks t
+                     where t.created_by_id = :userId
+                       and t.assigned_to_id is distinct from :userId
+                       and (t.created_at, t.id) < (:createdAt, :id)
+                     order by t.created_at desc, t.id desc
+                     limit :limit)
+                ) v
+                order by v.created_at desc, v.id desc
+                limit :limit
+            )
+            select %s
+            from v
+            join tasks t on t.id = v.id
+            %s
+            order by t.created_at desc, t.id desc
+            """.formatted(COLUMNS, PEOPLE_JOINS);
+
+    // Tasks assigned to or created by anyone in the caller's subtree (caller included), via user_hierarchy_closure.
+    // Each member is one keyset range scan on the V12 indexes, capped at :limit (lateral), so a 500-person team
+    // reads at most 2 x 500 x limit index entries before the final top-N, never the team's whole history.
+    private static final String TEAM_PAGE = """
+            with team as (
+                -- the user even without a self row in the closure table, so the team view is never empty
+                select cast(:userId as bigint) as id
+                union
+                select h.descendant_id
+                from user_hierarchy_closure h
+                where h.ancestor_id = :userId
+            ),
+            v as (
+                select v.id from (
+                    select x.id, x.created_at
+                    from team m
+                    cross join lateral (
+                        select t.id, t.created_at from tasks t
+                        where t.assigned_to_id = m.id
+                          and (t.created_at, t.id) < (:createdAt, :id)
+                        order by t.created_at desc, t.id desc
+                        limit :limit
+                    ) x
+                    union all
+                    select x.id, x.created_at
+                    from team m
+                    cross join lateral (
+                        select t.id, t.created_at from tasks t
+                        where t.created_by_id = m.id
+                          and (t.assigned_to_id is null or t.assigned_to_id not in (select id from team))
+                          and (t.created_at, t.id) < (:createdAt, :id)
+                        order by t.created_at desc, t.id desc
+                        limit :limit
+                    ) x
+                ) v
+                order by v.created_at desc, v.id desc
+                limit :limit
+            )
+            select %s
+            from v
+            join tasks t on t.id = v.id
+            %s
+            order by t.created_at desc, t.id desc
+            """.formatted(COLUMNS, PEOPLE_JOINS);
+
+    // Unpaged / export form of VISIBLE_PAGE: the same two index range scans, without keyset bound and limit
+    // (an OR of both columns can't use either index and ends up scanning tasks).
+    private static final String VISIBLE_ALL = """
+            with v as (
+                select t.id from tasks t
+                where t.assigned_to_id = :userId
+                union all
+                select t.id from tasks t
+                where t.created_by_id = :userId
+                  and t.assigned_to_id is distinct from :userId
+            )
+            select %s
+            from v
+            join tasks t on t.id = v.id
+            %s
+            order by t.created_at desc, t.id desc
+            """.formatted(COLUMNS, PEOPLE_JOINS);
+
+    static final RowMapper<TaskRow> ROW_MAPPER = TaskReadRepository::mapRow;
+
+    // Export reads through a server-side cursor in chunks of this many rows instead of buffering the result.
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate streamingJdbc;
+
+    public TaskReadRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+
+        JdbcTemplate streaming = new JdbcTemplate(jdbc.getJdbcTemplate().getDataSource());
+        streaming.setFetchSize(EXPORT_FETCH_SIZE);
+        this.streamingJdbc = new NamedParameterJdbcTemplate(streaming);
+    }
+
+    // ---- paged (fetches limit + 1 rows, see CursorPage.of) ----
+
+    public List<TaskRow> visiblePage(Long userId, KeysetCursor after, int limit) {
+        return jdbc.query(VISIBLE_PAGE, pageParams(userId, after, limit), ROW_MAPPER);
+    }
+
+    /**
+     * Manager's team view: tasks whose assignee or creator is in userId's subtree.
+     */
+    public List<TaskRow> teamPage(Long userId, KeysetCursor after, int limit) {
+        return jdbc.query(TEAM_PAGE, pageParams(userId, after, limit), ROW_MAPPER);
+    }
+
+    public List<TaskRow> assignedPage(Long userId, KeysetCursor after, int limit) {
+        return page("t.assigned_to_id = :userId", userId, after, limit);
+    }
+
+    public List<TaskRow> createdPage(Long userId, KeysetCursor after, int limit) {
+        return page("t.created_by_id = :userId", userId, after, limit);
+    }
+
+    public List<TaskRow> donePage(Long userId, KeysetCursor after, int limit) {
+        return page("t.assigned_to_id = :userId and t.status = 'DONE'", userId, after, limit);
+    }
+
+    // ---- unpaged (legacy opt-in) ----
+
+    public List<TaskController.TaskDto> visible(Long userId) {
+        return jdbc.query(VISIBLE_ALL, new MapSqlParameterSource("userId", userId), ROW_MAPPER)
+                .stream().map(TaskRow::dto).toList();
+    }
+
+    public List<TaskController.TaskDto> assigned(Long userId) {
+        return all("t.assigned_to_id = :userId", userId);
+    }
+
+    public List<TaskController.TaskDto> created(Long userId) {
+        return all("t.created_by_id = :userId", userId);
+    }
+
+    public List<TaskController.TaskDto> done(Long userId) {
+        return all("t.assigned_to_id = :userId and t.status = 'DONE'", userId);
+    }
+
+    // ---- streaming export ----
+    // Must run inside a transaction: PostgreSQL only honours the fetch size (forward-only cursor) with autocommit off.
+
+    public void streamVisible(Long userId, Consumer<TaskController.TaskDto> sink) {
+        stream(VISIBLE_ALL, new MapSqlParameterSource("userId", userId), sink);
+    }
+
+    public void streamAll(Consumer<TaskController.TaskDto> sink) {
+        stream("select " + COLUMNS + " from tasks t " + PEOPLE_JOINS + ORDER, new MapSqlParameterSource(), sink);
+    }
+
+    private void stream(String sql, MapSqlParameterSource params, Consumer<TaskController.TaskDto> sink) {
+        streamingJdbc.query(sql, params, (RowCallbackHandler) rs -> sink.accept(mapRow(rs, 0).dto()));
+    }
+
+    private List<TaskRow> page(String where, Long userId, KeysetCursor after, int limit) {
+        String sql = "select " + COLUMNS + " from tasks t " + PEOPLE_JOINS
+                + " where " + where + KEYSET + ORDER + " limit :limit";
+        return jdbc.query(sql, pageParams(userId, after, limit), ROW_MAPPER);
+    }
+
+    private List<TaskController.TaskDto> all(String where, Long userId) {
+        String sql = "select " + COLUMNS + " from tasks t " + PEOPLE_JOINS + " where " + where + ORDER;
+        return jdbc.query(sql, new MapSqlParameterSource("userId", userId), ROW_MAPPER)
+                .stream().map(TaskRow::dto).toList();
+    }
+
+    private static MapSqlParameterSource pageParams(Long userId, KeysetCursor after, int limit) {
+        return new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("createdAt", toOffset(after.createdAt()))
+                .addValue("id", after.id())
+                .addValue("limit", limit);
+    }
+
+    static OffsetDateTime toOffset(Instant i) {
+        return i == null ? null : OffsetDateTime.ofInstant(i, ZoneOffset.UTC);
+    }
+
+    private static Instant instant(ResultSet rs, String col) throws SQLException {
+        OffsetDateTime v = rs.getObject(col, OffsetDateTime.class);
+        return v == null ? null : v.toInstant();
+    }
+
+    private static TaskRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+        TaskController.TaskDto dto = new TaskController.TaskDto(
+                rs.getLong("id"),
+                rs.getString("title"),
+                rs.getString("status"),
+                rs.getString("priority"),
+                rs.getObject("date", LocalDate.class),
+                rs.getObject("assigned_to_id", Long.class),
+                rs.getString("assigned_to_name"),
+                rs.getObject("created_by_id", Long.class),
+                rs.getString("created_by_name"),
+                rs.getBoolean("follow_up_enabled"),
+                instant(rs, "follow_up_at"),
+                rs.getBoolean("close_requested"),
+                instant(rs, "close_requested_at"),
+                instant(rs, "closed_at"),
+                rs.getObject("closed_by_id", Long.class),
+                rs.getString("closed_by_name"),
+                rs.getLong("version")
+        );
+        return new TaskRow(dto, new KeysetCursor(instant(rs, "created_at"), dto.id()));
+    }
+}
@@ -1,13 +1,14 @@
 // backend/src/main/java/com/taskchi/taskchi/tasks/TaskRepository.java
 package com.taskchi.taskchi.tasks;
 
+import com.taskchi.taskchi.users.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 public interface TaskRepository extends JpaRepository<Task, Long> {
 
@@ -20,46 +21,47 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     """)
     Optional<Task> findByIdWithPeople(@Param("id") Long id);
 
-    @Query("""
-        select t from Task t
-        left join fetch t.assignedTo a
-        left join fetch t.createdBy c
-        left join fetch t.closedBy cb
-        where a.id = :userId
-        order by t.createdAt desc
-    """)
-    List<Task> findAssignedTo(@Param("userId") Long userId);
-
-    @Query("""
-        select t from Task t
-        left join fetch t.assignedTo a
-        left join fetch t.createdBy c
-        left join fetch t.closedBy cb
-        where c.id = :userId
-        order by t.createdAt desc
-    """)
-    List<Task> findCreatedBy(@Param("userId") Long userId);
+    // Close workflow as conditional updates: exactly one of several concurrent callers gets 1 back,
+    // so only that one sends the TASK_CLOSE_REQUEST / TASK_CLOSED notification.
 
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
     @Query("""
-        select distinct t from Task t
-        left join fetch t.assignedTo a
-        left join fetch t.createdBy c
-        left join fetch t.closedBy cb
-        where a.id = :userId or c.id = :userId
-        order by t.createdAt desc
+        update Task t
+        set t.closeRequested = true,
+            t.closeRequestedAt = :now,
+            t.version = t.version + 1
+        where t.id = :id
+          and t.closeRequested = false
+          and t.status <> :done
+          and (:expectedVersion is null or t.version = :expectedVersion)
     """)
-    List<Task> findVisible(@Param("userId") Long userId);
+    int markCloseRequested(@Param("id") Long id, @Param("now") Instant now, @Param("done") TaskStatus done,
+                           @Param("expectedVersion") Long expectedVersion);
 
+    /**
+     * force=false requires a pending close request (the assignee asked first).
+     * expectedVersion (If-Match) null = any version.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
     @Query("""
-        select t from Task t
-        left join fetch t.assignedTo a
-        left join fetch t.createdBy c
-        left join fetch t.closedBy cb
-        where a.id = :userId
-          and t.status = 'DONE'
-        order by t.createdAt desc
+        update Task t
+        set t.status = :done,
+            t.closedAt = :now,
+            t.closedBy = :closedBy,
+            t.closeRequestedAt = case when t.closeRequested = true then t.closeRequestedAt else :now end,
+            t.closeRequested = true,
+            t.version = t.version + 1
+        where t.id = :id
+          and t.status <> :done
+          and (t.closeRequested = true or :force = true)
+          and (:expectedVersion is null or t.version = :expectedVersion)
     """)
-    List<Task> findDoneBy(@Param("userId") Long userId);
+    int markClosed(@Param("id") Long id,
+                   @Param("now") Instant now,
+                   @Param("closedBy") User closedBy,
+                   @Param("force") boolean force,
+                   @Param("done") TaskStatus done,
+                   @Param("expectedVersion") Long expectedVersion);
 
     @Query("""
         select t from Task t
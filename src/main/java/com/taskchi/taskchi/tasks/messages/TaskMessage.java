@@ -17,7 +17,8 @@ import java.time.Instant;
 public class TaskMessage {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_messages_seq")
+    @SequenceGenerator(name = "task_messages_seq", sequenceName = "task_messages_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
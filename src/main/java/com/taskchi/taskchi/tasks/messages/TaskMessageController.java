@@ -1,12 +1,11 @@
 package com.taskchi.taskchi.tasks.messages;
 
 import com.taskchi.taskchi.auth.CurrentUser;
-import com.taskchi.taskchi.notification.InAppNotification;
-import com.taskchi.taskchi.notification.InAppNotificationRepository;
+import com.taskchi.taskchi.notification.NotificationOutbox;
+import com.taskchi.taskchi.notification.PushHub;
 import com.taskchi.taskchi.tasks.Task;
 import com.taskchi.taskchi.tasks.TaskRepository;
 import com.taskchi.taskchi.users.User;
-import jakarta.persistence.EntityManager;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
@@ -27,22 +26,22 @@ public class TaskMessageController {
 
     private final TaskRepository taskRepo;
     private final TaskMessageRepository msgRepo;
-    private final InAppNotificationRepository notifRepo;
+    private final NotificationOutbox outbox;
+    private final PushHub push;
     private final CurrentUser currentUser;
-    private final EntityManager em;
 
     public TaskMessageController(
             TaskRepository taskRepo,
             TaskMessageRepository msgRepo,
-            InAppNotificationRepository notifRepo,
-            CurrentUser currentUser,
-            EntityManager em
+            NotificationOutbox outbox,
+            PushHub push,
+            CurrentUser currentUser
     ) {
         this.taskRepo = taskRepo;
         this.msgRepo = msgRepo;
-        this.notifRepo = notifRepo;
+        this.outbox = outbox;
+        this.push = push;
         this.currentUser = currentUser;
-        this.em = em;
     }
 
     public record TaskMessageDto(
@@ -105,9 +104,17 @@ public class TaskMessageController {
         TaskMessage saved = msgRepo.save(m);
 
         // notify other participants
-        createNotifications(task, me, body);
+        createNotifications(task, saved, me, body);
 
-        return toDto(saved);
+        TaskMessageDto dto = toDto(saved);
+        // live update of open task views (the sender's other tabs too)
+        List<Long> participants = new ArrayList<>();
+        if (task.getCreatedBy() != null) participants.add(task.getCreatedBy().getId());
+        if (task.getAssignedTo() != null) participants.add(task.getAssignedTo().getId());
+        participants.add(me.getId());
+        push.publish(participants, "task-message", dto);
+
+        return dto;
     }
 
     private TaskMessageDto toDto(TaskMessage m) {
@@ -132,7 +139,7 @@ public class TaskMessageController {
         return isAssignee || isCreator;
     }
 
-    private void createNotifications(Task task, User sender, String body) {
+    private void createNotifications(Task task, TaskMessage message, User sender, String body) {
         Set<Long> recipientIds = new LinkedHashSet<>();
 
         if (task.getCreatedBy() != null) recipientIds.add(task.getCreatedBy().getId());
@@ -146,18 +153,10 @@ public class TaskMessageController {
         String title = "پیام جدید درباره تسک: " + safe(task.getTitle());
         String preview = buildPreview(sender, body);
 
-        for (Long rid : recipientIds) {
-            User u = em.getReference(User.class, rid);
-
-            InAppNotification n = new InAppNotification();
-            n.setType("TASK_MESSAGE");
-            n.setUser(u);
-            n.setTaskId(task.getId());
-            n.setTitle(title);
-            n.setMessage(preview);
-
-            notifRepo.save(n);
-        }
+        // one outbox row for all recipients; the notifications themselves are written after commit,
+        // coalesced into one unread notification per recipient and task (NotificationService.coalesce)
+        outbox.enqueue("task-message:" + message.getId(), "TASK_MESSAGE", title, preview,
+                task.getId(), null, recipientIds);
     }
 
     private String buildPreview(User sender, String body) {
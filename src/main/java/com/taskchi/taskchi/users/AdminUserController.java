@@ -1,11 +1,15 @@
 package com.taskchi.taskchi.users;
 
+import com.taskchi.taskchi.auth.AuthTokens;
+import com.taskchi.taskchi.auth.UserIdentityCache;
 import com.taskchi.taskchi.common.Role;
+import com.taskchi.taskchi.common.UserChangeVersions;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.security.SecureRandom;
@@ -19,12 +23,22 @@ public class AdminUserController {
     private final UserRepository repo;
     private final PasswordEncoder encoder;
     private final UserHierarchyService hierarchy;
+    private final UserHierarchyClosureRepository closure;
+    private final UserChangeVersions versions;
+    private final UserIdentityCache identities;
+    private final AuthTokens tokens;
     private final SecureRandom random = new SecureRandom();
 
-    public AdminUserController(UserRepository repo, PasswordEncoder encoder, UserHierarchyService hierarchy) {
+    public AdminUserController(UserRepository repo, PasswordEncoder encoder, UserHierarchyService hierarchy,
+                               UserHierarchyClosureRepository closure, UserChangeVersions versions,
+                               UserIdentityCache identities, AuthTokens tokens) {
         this.repo = repo;
         this.encoder = encoder;
         this.hierarchy = hierarchy;
+        this.closure = closure;
+        this.versions = versions;
+        this.identities = identities;
+        this.tokens = tokens;
     }
 
     public record CreateUserRequest(
@@ -56,6 +70,7 @@ public class AdminUserController {
     }
 
     @PostMapping
+    @Transactional
     public CreateUserResponse create(@RequestBody CreateUserRequest req) {
         if (repo.existsByEmail(req.email())) {
             throw new IllegalArgumentException("Email already exists");
@@ -70,6 +85,8 @@ public class AdminUserController {
         u.setPasswordHash(encoder.encode(initialPassword));
 
         User saved = repo.save(u);
+        closure.addUser(saved.getId());
+        hierarchy.refreshAfterCommit();
 
         return new CreateUserResponse(
                 new UserDto(saved.getId(), saved.getFullName(), saved.getEmail(), saved.getRole(), saved.isActive(),
@@ -86,13 +103,19 @@ public class AdminUserController {
      * managerId می‌تواند null باشد (یعنی کاربر مدیر ندارد).
      */
     @PatchMapping("/{id}/manager")
+    @Transactional
     public void setManager(@PathVariable Long id, @RequestBody SetManagerRequest req) {
         User u = repo.findById(id).orElseThrow();
 
+        // one hierarchy change at a time: the cycle check below must see every committed move
+        closure.lock();
+
         Long managerId = req.managerId();
         if (managerId == null) {
             u.setManager(null);
             repo.save(u);
+            closure.setManager(id, null);
+            hierarchy.refreshAfterCommit();
             return;
         }
 
@@ -109,6 +132,8 @@ public class AdminUserController {
 
         u.setManager(manager);
         repo.save(u);
+        closure.setManager(id, managerId);
+        hierarchy.refreshAfterCommit();
     }
 
     public record ResetPasswordResponse(String newPassword) {
@@ -120,6 +145,8 @@ public class AdminUserController {
         String newPassword = generatePassword(10);
         u.setPasswordHash(encoder.encode(newPassword));
         repo.save(u);
+        identities.evict(id);
+        tokens.revoke(id);
         return new ResetPasswordResponse(newPassword);
     }
 
@@ -131,6 +158,8 @@ public class AdminUserController {
         User u = repo.findById(id).orElseThrow();
         u.setActive(req.active());
         repo.save(u);
+        identities.evict(id);
+        if (!req.active()) tokens.revoke(id);
     }
 
     private String generatePassword(int len) {
@@ -157,6 +186,10 @@ public class AdminUserController {
             throw new IllegalArgumentException("Main admin role cannot be changed");
         }
 
+        // role and email are inside issued tokens
+        String oldEmail = u.getEmail();
+        Role oldRole = u.getRole();
+
         if (req.fullName() != null && !req.fullName().trim().isEmpty()) {
             u.setFullName(req.fullName().trim());
         }
@@ -180,6 +213,12 @@ public class AdminUserController {
         }
 
         User saved = repo.save(u);
+        identities.evict(id);
+        if (!saved.isActive() || saved.getRole() != oldRole || !saved.getEmail().equals(oldEmail)) {
+            tokens.revoke(id);
+        }
+        // names are shown in other users' task lists
+        versions.touchAll();
         return new UserDto(
                 saved.getId(),
                 saved.getFullName(),
@@ -207,5 +246,9 @@ public class AdminUserController {
         u.setFullName(u.getFullName() + " (deleted)");
 
         repo.save(u);
+        identities.evict(id);
+        tokens.revoke(id);
+        versions.touchAll();
+        hierarchy.refresh();
     }
 }
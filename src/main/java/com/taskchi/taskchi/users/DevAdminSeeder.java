@@ -11,10 +11,12 @@ import org.springframework.boot.CommandLineRunner;
 public class DevAdminSeeder implements CommandLineRunner {
 
     private final UserRepository repo;
+    private final UserHierarchyClosureRepository closure;
     private final PasswordEncoder encoder;
 
-    public DevAdminSeeder(UserRepository repo, PasswordEncoder encoder) {
+    public DevAdminSeeder(UserRepository repo, UserHierarchyClosureRepository closure, PasswordEncoder encoder) {
         this.repo = repo;
+        this.closure = closure;
         this.encoder = encoder;
     }
 
@@ -30,6 +32,7 @@ public class DevAdminSeeder implements CommandLineRunner {
         admin.setActive(true);
 
         repo.save(admin);
+        closure.addUser(admin.getId());
 
         System.out.println("=== DEV ADMIN CREATED ===");
         System.out.println("email: admin@taskchi.local");
@@ -0,0 +1,126 @@
+package com.taskchi.taskchi.users;
+
+import java.util.*;
+
+/**
+ * Immutable picture of the manager tree: parent array + Euler-tour (pre-order) intervals.
+ * u is in the subtree of m  <=>  tin[m] <= tin[u] <= tout[m], so "is ancestor" is O(1)
+ * and a subtree is one contiguous slice of the pre-order.
+ * Built once per change and swapped in whole (copy-on-write) by UserHierarchyService.
+ */
+final class HierarchySnapshot {
+
+    private final Map<Long, Integer> index;
+    private final int[] parent; // -1 = root
+    private final int[] tin;
+    private final int[] tout;
+    private final long[] preorder;
+
+    private HierarchySnapshot(Map<Long, Integer> index, int[] parent, int[] tin, int[] tout, long[] preorder) {
+        this.index = index;
+        this.parent = parent;
+        this.tin = tin;
+        this.tout = tout;
+        this.preorder = preorder;
+    }
+
+    /**
+     * links: [userId, managerId-or-null] for every user.
+     */
+    static HierarchySnapshot build(List<Object[]> links) {
+        int n = links.size();
+        Map<Long, Integer> index = new HashMap<>(n * 2);
+        long[] ids = new long[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = ((Number) links.get(i)[0]).longValue();
+            index.put(ids[i], i);
+        }
+
+        int[] parent = new int[n];
+        // children as linked lists: firstChild[p] -> nextSibling[c] -> ...
+        int[] firstChild = new int[n];
+        int[] nextSibling = new int[n];
+        Arrays.fill(firstChild, -1);
+        for (int i = n - 1; i >= 0; i--) {
+            Object m = links.get(i)[1];
+            Integer p = m == null ? null : index.get(((Number) m).longValue());
+            parent[i] = p == null ? -1 : p;
+            if (p != null) {
+                nextSibling[i] = firstChild[p];
+                firstChild[p] = i;
+            }
+        }
+
+        int[] tin = new int[n];
+        int[] tout = new int[n];
+        long[] preorder = new long[n];
+        boolean[] seen = new boolean[n];
+        int[] cursor = new int[n]; // next child to visit, per node
+        int[] counter = {0};
+
+        // roots first; then whatever is left (only nodes on a manager cycle, which the admin API prevents)
+        for (int i = 0; i < n; i++) {
+            if (parent[i] == -1) dfs(i, firstChild, nextSibling, cursor, tin, tout, preorder, seen, ids, counter);
+        }
+        for (int i = 0; i < n; i++) {
+            if (!seen[i]) dfs(i, firstChild, nextSibling, cursor, tin, tout, preorder, seen, ids, counter);
+        }
+
+        return new HierarchySnapshot(index, parent, tin, tout, preorder);
+    }
+
+    // iterative, the tree can be deep
+    private static void dfs(int root, int[] firstChild, int[] nextSibling, int[] cursor,
+                            int[] tin, int[] tout, long[] preorder, boolean[] seen, long[] ids, int[] counter) {
+        Deque<Integer> stack = new ArrayDeque<>();
+        seen[root] = true;
+        tin[root] = counter[0];
+        preorder[counter[0]++] = ids[root];
+        cursor[root] = firstChild[root];
+        stack.push(root);
+
+        while (!stack.isEmpty()) {
+            int top = stack.peek();
+            int child = cursor[top];
+            while (child != -1 && seen[child]) child = nextSibling[child];
+            if (child == -1) {
+                tout[top] = counter[0] - 1;
+                stack.pop();
+                continue;
+            }
+            cursor[top] = nextSibling[child];
+            seen[child] = true;
+            tin[child] = counter[0];
+            preorder[counter[0]++] = ids[child];
+            cursor[child] = firstChild[child];
+            stack.push(child);
+        }
+    }
+
+    boolean contains(Long userId) {
+        return userId != null && index.containsKey(userId);
+    }
+
+    /**
+     * true if target == manager or target is anywhere below manager. Both must be contained.
+     */
+    boolean isInSubtree(Long managerId, Long targetId) {
+        int m = index.get(managerId);
+        int t = index.get(targetId);
+        return tin[m] <= tin[t] && tin[t] <= tout[m];
+    }
+
+    /**
+     * manager itself first, then its whole subtree in pre-order.
+     */
+    Set<Long> subtree(Long managerId) {
+        int m = index.get(managerId);
+        Set<Long> out = new LinkedHashSet<>(Math.max(16, (tout[m] - tin[m] + 1) * 2));
+        for (int i = tin[m]; i <= tout[m]; i++) out.add(preorder[i]);
+        return out;
+    }
+
+    int size() {
+        return parent.length;
+    }
+}
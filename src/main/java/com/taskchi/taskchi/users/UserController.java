@@ -6,17 +6,19 @@ import org.springframework.security.core.Authentication;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.*;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
 
-    private final UserRepository userRepository;
+    private static final int MAX_ASSIGNABLE_LIMIT = 200;
+
+    private final UserReadRepository userReads;
     private final CurrentUser currentUser;
 
-    public UserController(UserRepository userRepository, CurrentUser currentUser) {
-        this.userRepository = userRepository;
+    public UserController(UserReadRepository userReads, CurrentUser currentUser) {
+        this.userReads = userReads;
         this.currentUser = currentUser;
     }
 
@@ -26,49 +28,23 @@ public class UserController {
      * لیست کاربرانی که کاربر لاگین‌شده می‌تواند به آن‌ها تسک ارجاع دهد.
      * - STAFF/Manager: خودش + زیرمجموعه‌ها
      * - ADMIN: همه‌ی کاربران فعال غیرادمین + خودش (ادمین‌های دیگر نمایش داده نمی‌شوند)
+     * مرتب‌سازی بر اساس نام (ترتیب الفبای فارسی).
+     * q (اختیاری): ابتدای نام، ابتدای یکی از کلمات نام یا ابتدای ایمیل.
+     * limit (اختیاری): بدون آن همه‌ی نتایج برمی‌گردد.
      */
     @GetMapping("/assignable")
     @Transactional(readOnly = true)
-    public List<UserMiniDto> assignable(Authentication auth) {
+    public List<UserMiniDto> assignable(Authentication auth,
+                                        @RequestParam(required = false) String q,
+                                        @RequestParam(required = false) Integer limit) {
         User me = currentUser.requireUser(auth);
 
-        List<User> out = new ArrayList<>();
-
-        if (me.isAdmin()) {
-            for (User u : userRepository.findAll()) {
-                if (!u.isActive()) continue;
-                if (u.isAdmin() && !Objects.equals(u.getId(), me.getId())) continue;
-                out.add(u);
-            }
-        } else {
-            // self
-            if (me.isActive()) out.add(me);
-
-            // BFS on hierarchy by manager_id
-            Set<Long> visited = new HashSet<>();
-            Deque<Long> queue = new ArrayDeque<>();
-            visited.add(me.getId());
-            queue.add(me.getId());
-
-            while (!queue.isEmpty()) {
-                Long curId = queue.poll();
-                List<User> subs = userRepository.findByManagerId(curId);
-                for (User s : subs) {
-                    if (s == null || s.getId() == null) continue;
-                    if (!visited.add(s.getId())) continue;
-                    queue.add(s.getId());
-
-                    if (!s.isActive()) continue;
-                    if (s.isAdmin()) continue; // هیچ‌کس به ادمین تسک نمی‌دهد
-                    out.add(s);
-                }
-            }
+        String prefix = q == null || q.isBlank() ? null : q.trim();
+        if (prefix != null && prefix.length() > 100) {
+            throw new IllegalArgumentException("q is too long");
         }
+        Integer size = limit == null ? null : Math.max(1, Math.min(limit, MAX_ASSIGNABLE_LIMIT));
 
-        out.sort(Comparator.comparing(User::getFullName, Comparator.nullsLast(String::compareToIgnoreCase)));
-
-        return out.stream()
-                .map(u -> new UserMiniDto(u.getId(), u.getFullName(), u.getEmail(), u.getRole(), u.isActive()))
-                .toList();
+        return userReads.assignable(me.getId(), me.isAdmin(), prefix, size);
     }
 }
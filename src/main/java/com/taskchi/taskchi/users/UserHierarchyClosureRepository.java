@@ -0,0 +1,121 @@
+package com.taskchi.taskchi.users;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * user_hierarchy_closure (see V16): one (ancestor, descendant, depth) row per pair, self rows included.
+ * Must be written in the same transaction as the users.manager_id change it mirrors.
+ * Reads fall back to a recursive CTE over users.manager_id for users without a self row
+ * (i.e. inserted by something that doesn't maintain the closure).
+ */
+@Repository
+public class UserHierarchyClosureRepository {
+
+    // pg_advisory_xact_lock key for hierarchy changes (cycle check + move must not interleave)
+    private static final long LOCK_KEY = 0x7461736b_68696572L;
+
+    private static final String SUBTREE_FALLBACK = """
+            with recursive sub(id) as (
+                select cast(:id as bigint)
+                union
+                select u.id from users u join sub s on u.manager_id = s.id
+            )
+            select id from sub
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public UserHierarchyClosureRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Serializes hierarchy changes until the end of the current transaction.
+     */
+    public void lock() {
+        jdbc.queryForObject("select count(*) from (select pg_advisory_xact_lock(:key)) l",
+                new MapSqlParameterSource("key", LOCK_KEY), Long.class);
+    }
+
+    public void addUser(Long userId) {
+        jdbc.update("""
+                insert into user_hierarchy_closure(ancestor_id, descendant_id, depth)
+                values (:id, :id, 0)
+                on conflict do nothing
+                """, new MapSqlParameterSource("id", userId));
+    }
+
+    /**
+     * Moves userId (with its whole subtree) under managerId, or makes it a root when managerId is null.
+     * The caller has already checked that managerId is not inside userId's subtree.
+     */
+    public void setManager(Long userId, Long managerId) {
+        addUser(userId);
+        MapSqlParameterSource p = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("managerId", managerId);
+
+        // detach: drop every link from userId's old ancestors into userId's subtree
+        jdbc.update("""
+                delete from user_hierarchy_closure l
+                where l.descendant_id in (
+                        select d.descendant_id from user_hierarchy_closure d where d.ancestor_id = :userId)
+                  and l.ancestor_id in (
+                        select a.ancestor_id from user_hierarchy_closure a
+                        where a.descendant_id = :userId and a.ancestor_id <> :userId)
+                """, p);
+
+        if (managerId == null) return;
+        addUser(managerId);
+
+        // attach: every ancestor of the manager (manager included) x every node of the subtree
+        jdbc.update("""
+                insert into user_hierarchy_closure(ancestor_id, descendant_id, depth)
+                select a.ancestor_id, d.descendant_id, a.depth + d.depth + 1
+                from user_hierarchy_closure a
+                cross join user_hierarchy_closure d
+                where a.descendant_id = :managerId
+                  and d.ancestor_id = :userId
+                """, p);
+    }
+
+    public boolean isInSubtree(Long managerId, Long targetId) {
+        MapSqlParameterSource p = new MapSqlParameterSource()
+                .addValue("managerId", managerId)
+                .addValue("targetId", targetId);
+        Boolean found = jdbc.queryForObject("""
+                select case
+                    when exists (select 1 from user_hierarchy_closure
+                                 where ancestor_id = :managerId and descendant_id = :targetId) then true
+                    when exists (select 1 from user_hierarchy_closure
+                                 where ancestor_id = :managerId and descendant_id = :managerId) then false
+                    end
+                """, p, Boolean.class);
+        if (found != null) return found;
+        return subtreeFallback(managerId).contains(targetId);
+    }
+
+    /**
+     * managerId itself + all direct and indirect subordinates, nearest first.
+     */
+    public Set<Long> subtreeIds(Long managerId) {
+        List<Long> ids = jdbc.queryForList("""
+                select descendant_id from user_hierarchy_closure
+                where ancestor_id = :id
+                order by depth, descendant_id
+                """, new MapSqlParameterSource("id", managerId), Long.class);
+        if (ids.isEmpty()) return subtreeFallback(managerId);
+        return new LinkedHashSet<>(ids);
+    }
+
+    private Set<Long> subtreeFallback(Long managerId) {
+        return new LinkedHashSet<>(jdbc.queryForList(SUBTREE_FALLBACK,
+                new MapSqlParameterSource("id", managerId), Long.class));
+    }
+}
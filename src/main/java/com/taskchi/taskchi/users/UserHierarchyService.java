@@ -1,33 +1,94 @@
 package com.taskchi.taskchi.users;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import java.util.*;
 
+/**
+ * Manager hierarchy questions, answered from an in-memory HierarchySnapshot (O(1) "is ancestor").
+ * The snapshot is rebuilt from users.manager_id after every hierarchy change made through
+ * AdminUserController (refreshAfterCommit()), and periodically to pick up changes made on other nodes.
+ * Ids the snapshot doesn't know yet (e.g. a user just created on another node) are answered
+ * from user_hierarchy_closure, as is the cycle check on the write path.
+ */
 @Service
 public class UserHierarchyService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserHierarchyService.class);
+
     private final UserRepository userRepository;
+    private final UserHierarchyClosureRepository closure;
+    private volatile HierarchySnapshot snapshot;
 
-    public UserHierarchyService(UserRepository userRepository) {
+    public UserHierarchyService(UserRepository userRepository, UserHierarchyClosureRepository closure) {
         this.userRepository = userRepository;
+        this.closure = closure;
+    }
+
+    /**
+     * Rebuilds the snapshot from the database. Call after any change to users or users.manager_id.
+     */
+    public synchronized void refresh() {
+        HierarchySnapshot fresh = HierarchySnapshot.build(userRepository.findAllManagerLinks());
+        snapshot = fresh;
+        log.debug("User hierarchy snapshot rebuilt ({} users)", fresh.size());
+    }
+
+    /**
+     * refresh() once the current transaction commits (right away when there is none),
+     * so the snapshot never shows a change that was rolled back.
+     */
+    public void refreshAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refresh();
+            }
+        });
+    }
+
+    // every 5 minutes
+    @Scheduled(fixedDelay = 300_000, initialDelay = 300_000)
+    public void periodicRefresh() {
+        refresh();
+    }
+
+    private HierarchySnapshot snapshot() {
+        HierarchySnapshot s = snapshot;
+        if (s == null) {
+            synchronized (this) {
+                if (snapshot == null) refresh();
+                s = snapshot;
+            }
+        }
+        return s;
     }
 
     public boolean isSubordinate(Long managerId, Long targetId) {
         if (Objects.equals(managerId, targetId)) return true;
-        Set<Long> visited = new HashSet<>();
-        Deque<Long> queue = new ArrayDeque<>();
-        queue.add(managerId);
-        while (!queue.isEmpty()) {
-            Long cur = queue.poll();
-            if (visited.contains(cur)) continue;
-            visited.add(cur);
-            List<User> subs = userRepository.findByManagerId(cur);
-            for (User s : subs) {
-                if (Objects.equals(s.getId(), targetId)) return true;
-                queue.add(s.getId());
-            }
+        HierarchySnapshot s = snapshot();
+        if (s.contains(managerId) && s.contains(targetId)) {
+            return s.isInSubtree(managerId, targetId);
         }
-        return false;
+        return closure.isInSubtree(managerId, targetId);
+    }
+
+    /**
+     * خودِ کاربر + همه‌ی زیرمجموعه‌های مستقیم و غیرمستقیم
+     */
+    public Set<Long> subtreeIds(Long managerId) {
+        if (managerId == null) return new LinkedHashSet<>();
+        HierarchySnapshot s = snapshot();
+        if (s.contains(managerId)) return s.subtree(managerId);
+        return closure.subtreeIds(managerId);
     }
 
     public boolean isManagerOf(Long managerId, Long employeeId) {
@@ -39,12 +100,13 @@ public class UserHierarchyService {
     /**
      * اگر employee را زیرمجموعه‌ی newManager کنیم، آیا حلقه (cycle) ایجاد می‌شود؟
      * مثال: employee مدیرِ newManager باشد، در این صورت newManager نمی‌تواند مدیر employee شود.
+     * Always read from the closure table (not the snapshot): call inside the transaction that
+     * moves the user, after UserHierarchyClosureRepository.lock().
      */
     public boolean wouldCreateCycle(Long employeeId, Long newManagerId) {
         if (employeeId == null || newManagerId == null) return false;
         if (Objects.equals(employeeId, newManagerId)) return true;
         // اگر newManager در زیرمجموعه‌ی employee باشد => حلقه
-        return isSubordinate(employeeId, newManagerId);
+        return closure.isInSubtree(employeeId, newManagerId);
     }
-
 }
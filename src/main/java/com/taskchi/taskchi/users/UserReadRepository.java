@@ -0,0 +1,71 @@
+package com.taskchi.taskchi.users;
+
+import com.taskchi.taskchi.common.Role;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Read-only user lists as UserMiniDto projections (no User entities, no manager/subordinates proxies).
+ */
+@Repository
+public class UserReadRepository {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public UserReadRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Users meId can assign tasks to: active non-admins (plus meId itself), restricted to meId's subtree
+     * (user_hierarchy_closure) unless admin. Sorted by name in Persian order (fa_ir, see V17).
+     *
+     * @param prefix optional; matches the start of the name, the start of any word of the name, or the start of the email
+     * @param limit  optional; null = no limit
+     */
+    public List<UserController.UserMiniDto> assignable(Long meId, boolean admin, String prefix, Integer limit) {
+        MapSqlParameterSource p = new MapSqlParameterSource()
+                .addValue("meId", meId)
+                .addValue("limit", limit);
+
+        String scope = admin ? "" : """
+                join user_hierarchy_closure h on h.descendant_id = u.id and h.ancestor_id = :meId
+                """;
+
+        String match = "";
+        if (prefix != null) {
+            String escaped = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            p.addValue("namePrefix", escaped + "%");
+            p.addValue("wordPrefix", "% " + escaped + "%");
+            p.addValue("emailPrefix", escaped.toLowerCase(Locale.ROOT) + "%");
+            match = """
+                    and (taskchi_search_norm(u.full_name) like taskchi_search_norm(:namePrefix)
+                         or taskchi_search_norm(u.full_name) like taskchi_search_norm(:wordPrefix)
+                         or lower(u.email) like :emailPrefix)
+                    """;
+        }
+
+        String sql = """
+                select u.id, u.full_name, u.email, u.role, u.active
+                from users u
+                %s
+                where u.active = true
+                  and (u.role <> 'ADMIN' or u.id = :meId)
+                  %s
+                order by u.full_name collate "fa_ir", u.id
+                limit cast(:limit as int)
+                """.formatted(scope, match);
+
+        return jdbc.query(sql, p, (rs, i) -> new UserController.UserMiniDto(
+                rs.getLong("id"),
+                rs.getString("full_name"),
+                rs.getString("email"),
+                Role.valueOf(rs.getString("role")),
+                rs.getBoolean("active")
+        ));
+    }
+}
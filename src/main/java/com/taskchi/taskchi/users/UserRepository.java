@@ -11,4 +11,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("select u from User u left join fetch u.manager")
     List<User> findAllWithManager();
+
+    // [id, managerId] for every user; input of the hierarchy snapshot
+    @Query("select u.id, m.id from User u left join u.manager m")
+    List<Object[]> findAllManagerLinks();
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+-- Keyset pagination of task lists on (created_at desc, id desc)
+
+create index if not exists idx_tasks_assigned_created
+    on tasks(assigned_to_id, created_at desc, id desc);
+
+create index if not exists idx_tasks_created_by_created
+    on tasks(created_by_id, created_at desc, id desc);
+
+-- "done" list only ever reads closed tasks of the assignee
+create index if not exists idx_tasks_assigned_done_created
+    on tasks(assigned_to_id, created_at desc, id desc)
+    where status = 'DONE';
@@ -0,0 +1,12 @@
+-- Sequence-based ids with Hibernate's pooled optimizer (allocationSize = 50).
+-- Hibernate reserves ids in blocks of 50, so the bigserial sequences must step by 50.
+-- Existing rows keep their ids: the next block starts right after the current sequence value.
+-- Column defaults (nextval) stay, so plain SQL inserts still work and just consume a whole block.
+
+alter sequence tasks_id_seq increment by 50;
+alter sequence in_app_notifications_id_seq increment by 50;
+alter sequence task_messages_id_seq increment by 50;
+alter sequence reminder_log_id_seq increment by 50;
+alter sequence task_followup_log_id_seq increment by 50;
+alter sequence audit_log_id_seq increment by 50;
+alter sequence meetings_id_seq increment by 50;
@@ -0,0 +1,37 @@
+-- Full-text-ish search over tasks, task messages and meetings (trigram matching on normalised text)
+
+create extension if not exists pg_trgm;
+
+-- Normalises Persian/Arabic text so that different spellings of the same word compare equal:
+--   Arabic yeh/alef maksura -> Persian yeh, Arabic kaf -> Persian keheh, heh with yeh/teh marbuta -> heh,
+--   alef with hamza/wasla -> alef, Persian/Arabic digits -> ASCII, ZWNJ -> space, ZWJ removed,
+--   harakat/tanwin/superscript alef/tatweel removed, lower-cased.
+-- Must stay IMMUTABLE: it is used in the expression indexes below and in every search query.
+create or replace function taskchi_search_norm(t text) returns text
+    language sql
+    immutable
+    strict
+    parallel safe
+as $$
+select lower(
+    regexp_replace(
+        translate(
+            t,
+            U&'\064A\0649\0643\06C0\0629\0623\0625\0671\06F0\06F1\06F2\06F3\06F4\06F5\06F6\06F7\06F8\06F9\0660\0661\0662\0663\0664\0665\0666\0667\0668\0669\200C\200D',
+            U&'\06CC\06CC\06A9\0647\0647\0627\0627\062701234567890123456789 '
+        ),
+        U&'[\064B-\065F\0670\0640]', '', 'g'
+    )
+)
+$$;
+
+create index if not exists idx_tasks_title_search
+    on tasks using gin (taskchi_search_norm(title) gin_trgm_ops);
+
+create index if not exists idx_task_messages_body_search
+    on task_messages using gin (taskchi_search_norm(body) gin_trgm_ops);
+
+create index if not exists idx_meetings_text_search
+    on meetings using gin (taskchi_search_norm(
+        coalesce(title, '') || ' ' || coalesce(content, '') || ' ' || coalesce(outcome, '')
+    ) gin_trgm_ops);
@@ -0,0 +1,6 @@
+-- Optimistic locking (@Version) for tasks and meetings; exposed to clients as ETag / If-Match
+alter table tasks
+    add column if not exists version bigint not null default 0;
+
+alter table meetings
+    add column if not exists version bigint not null default 0;
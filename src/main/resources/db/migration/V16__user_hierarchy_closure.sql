@@ -0,0 +1,32 @@
+-- Transitive closure of users.manager_id: one row per (ancestor, descendant) pair, including
+-- the (u, u, 0) self row. "Everyone under X" becomes a single range scan on the primary key,
+-- "who is above Y" a range scan on the reverse index.
+-- Maintained by the application (UserHierarchyClosureRepository) in the same transaction as
+-- the manager change; users.manager_id stays the source of truth.
+
+create table if not exists user_hierarchy_closure (
+    ancestor_id   bigint not null references users(id) on delete cascade,
+    descendant_id bigint not null references users(id) on delete cascade,
+    depth         int    not null,
+    primary key (ancestor_id, descendant_id)
+);
+
+create index if not exists idx_user_hierarchy_closure_desc
+    on user_hierarchy_closure(descendant_id, ancestor_id);
+
+-- Backfill from the current adjacency list. The path array stops the walk if the existing
+-- data already contains a cycle (the application never created one, but manager_id has no constraint).
+insert into user_hierarchy_closure(ancestor_id, descendant_id, depth)
+with recursive walk(ancestor_id, descendant_id, depth, path) as (
+    select u.id, u.id, 0, array[u.id]
+    from users u
+    union all
+    select w.ancestor_id, c.id, w.depth + 1, w.path || c.id
+    from walk w
+    join users c on c.manager_id = w.descendant_id
+    where c.id <> all(w.path)
+)
+select ancestor_id, descendant_id, min(depth)
+from walk
+group by ancestor_id, descendant_id
+on conflict do nothing;
@@ -0,0 +1,17 @@
+-- Assignee picker: Persian ordering and name/email prefix search in SQL (UserReadRepository.assignable)
+
+-- ICU Persian collation for "order by full_name". Servers built without ICU get a plain code-point
+-- collation under the same name, so queries keep working (ordering is then only approximately Persian).
+do $$
+begin
+    create collation if not exists fa_ir (provider = icu, locale = 'fa-IR');
+exception when others then
+    create collation if not exists fa_ir from "C";
+end $$;
+
+-- "name starts with" / "a word of the name starts with", on the same normalisation as search (V14)
+create index if not exists idx_users_full_name_search
+    on users using gin (taskchi_search_norm(full_name) gin_trgm_ops);
+
+create index if not exists idx_users_email_lower_prefix
+    on users (lower(email) text_pattern_ops);
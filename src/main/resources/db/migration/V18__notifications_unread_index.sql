@@ -0,0 +1,5 @@
+-- Unread notifications per user: rebuilds UnreadCounters (group by user_id where read_at is null)
+-- and serves the unread list without scanning read rows.
+create index if not exists idx_notifications_unread
+    on in_app_notifications(user_id, created_at desc)
+    where read_at is null;
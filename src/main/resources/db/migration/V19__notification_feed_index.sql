@@ -0,0 +1,13 @@
+-- Notification feed: keyset pagination on (created_at desc, id desc) per user, all and unread-only.
+-- The list columns are INCLUDEd so a page needs the heap only for the message preview.
+
+create index if not exists idx_notifications_user_created
+    on in_app_notifications(user_id, created_at desc, id desc)
+    include (type, title, task_id, meeting_id, read_at);
+
+-- replaces V18's (user_id, created_at desc): same use, plus the id tiebreak of the feed order
+create index if not exists idx_notifications_unread_created
+    on in_app_notifications(user_id, created_at desc, id desc)
+    where read_at is null;
+
+drop index if exists idx_notifications_unread;
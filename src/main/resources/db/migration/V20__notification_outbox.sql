@@ -0,0 +1,26 @@
+-- Transactional outbox for in-app notifications: the request transaction writes one row per event
+-- (with all recipients), NotificationOutboxDispatcher expands it into in_app_notifications later.
+
+create table if not exists notification_outbox (
+    id            bigserial primary key,
+    dedup_key     varchar(200),
+    type          varchar(40)  not null,
+    title         varchar(180) not null,
+    message       text,
+    task_id       bigint,
+    meeting_id    bigint,
+    recipient_ids bigint[]     not null,
+    created_at    timestamptz  not null default now(),
+    dispatched_at timestamptz,
+    attempts      int          not null default 0,
+    last_error    varchar(500)
+);
+
+-- same event enqueued twice (retried request / scheduler run) -> one row
+create unique index if not exists uk_notification_outbox_dedup
+    on notification_outbox(dedup_key);
+
+-- dispatcher queue
+create index if not exists idx_notification_outbox_pending
+    on notification_outbox(id)
+    where dispatched_at is null;
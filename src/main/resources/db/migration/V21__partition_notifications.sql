@@ -0,0 +1,53 @@
+-- in_app_notifications -> monthly range partitions on created_at (in_app_notifications_pYYYYMM).
+-- Partitions ahead of time and retention are handled by NotificationPartitionMaintenance;
+-- the default partition only catches rows outside every monthly range (it should stay empty).
+-- The primary key must contain the partition key, so it becomes (id, created_at); ids still come from the
+-- same sequence and stay unique.
+
+alter table in_app_notifications rename to in_app_notifications_old;
+-- keep the id sequence alive when the old table is dropped
+alter sequence in_app_notifications_id_seq owned by none;
+
+create table in_app_notifications (
+    like in_app_notifications_old including defaults
+) partition by range (created_at);
+
+alter table in_app_notifications add primary key (id, created_at);
+alter table in_app_notifications
+    add constraint fk_in_app_notifications_user foreign key (user_id) references users(id);
+alter table in_app_notifications
+    add constraint fk_in_app_notifications_task foreign key (task_id) references tasks(id) on delete set null;
+
+create table in_app_notifications_default partition of in_app_notifications default;
+
+-- one partition per month from the oldest row up to 3 months ahead
+do $$
+declare
+    m     date := date_trunc('month', coalesce((select min(created_at) from in_app_notifications_old), now()))::date;
+    last  date := (date_trunc('month', now()) + interval '3 months')::date;
+begin
+    while m <= last loop
+        execute format(
+            'create table if not exists %I partition of in_app_notifications for values from (%L) to (%L)',
+            'in_app_notifications_p' || to_char(m, 'YYYYMM'), m, (m + interval '1 month')::date);
+        m := (m + interval '1 month')::date;
+    end loop;
+end $$;
+
+insert into in_app_notifications select * from in_app_notifications_old;
+
+drop table in_app_notifications_old;
+
+alter sequence in_app_notifications_id_seq owned by in_app_notifications.id;
+
+-- indexes on the parent are created on every partition, present and future
+create index if not exists idx_in_app_notifications_task_id
+    on in_app_notifications(task_id);
+
+create index if not exists idx_notifications_user_created
+    on in_app_notifications(user_id, created_at desc, id desc)
+    include (type, title, task_id, meeting_id, read_at);
+
+create index if not exists idx_notifications_unread_created
+    on in_app_notifications(user_id, created_at desc, id desc)
+    where read_at is null;
@@ -0,0 +1,9 @@
+-- TASK_MESSAGE notifications are coalesced: one unread row per (user, task) carries the number of messages
+-- since the user last read it and the latest preview (NotificationService.coalesce).
+alter table in_app_notifications
+    add column if not exists message_count int not null default 1;
+
+-- the coalescing lookup: the open thread notification of a user for a task
+create index if not exists idx_notifications_unread_thread
+    on in_app_notifications(user_id, task_id, type)
+    where read_at is null;
@@ -0,0 +1,37 @@
+-- Every reminder trigger of every meeting as an instant (MeetingReminderSchedule keeps it in sync on
+-- create/update/delete); ReminderScheduler only reads the due, unfired range of the partial index.
+create table if not exists meeting_reminder_due (
+    meeting_id     bigint      not null references meetings(id) on delete cascade,
+    minutes_before int         not null,
+    fire_at        timestamptz not null,
+    fired          boolean     not null default false,
+    primary key (meeting_id, minutes_before)
+);
+
+create index if not exists idx_meeting_reminder_due_pending
+    on meeting_reminder_due(fire_at)
+    where not fired;
+
+-- backfill in taskchi.default-zone (Flyway placeholder defaultZone, application.properties), like
+-- MeetingReminderSchedule.sync; all-day / no start time -> 09:00.
+-- the mandatory same-day alert (0) plus each custom offset, for meetings with an owner and alarms on.
+-- Already logged or more than 48h late -> fired (the scheduler would not send them anyway).
+insert into meeting_reminder_due (meeting_id, minutes_before, fire_at, fired)
+select t.meeting_id, t.minutes_before, t.fire_at,
+       t.fire_at < now() - interval '48 hours'
+           or exists (select 1 from reminder_log l
+                      where l.meeting_id = t.meeting_id and l.minutes_before = t.minutes_before)
+from (
+    select m.id as meeting_id, o.minutes_before,
+           ((m.date + case when m.all_day or m.start_time is null then time '09:00' else m.start_time end)
+               at time zone '${defaultZone}') - make_interval(mins => o.minutes_before) as fire_at
+    from meetings m
+    cross join lateral (
+        select 0 as minutes_before
+        union
+        select r.minutes_before from meeting_reminders r where r.meeting_id = m.id and r.minutes_before > 0
+    ) o
+    where m.created_by_id is not null
+      and m.alarm_enabled
+) t
+on conflict do nothing;
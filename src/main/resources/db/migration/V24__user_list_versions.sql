@@ -0,0 +1,6 @@
+-- Per-user list version behind the weak ETags of the polled lists (UserChangeVersions).
+-- Bumped in the writing transaction, so every node sees the same tag; user_id 0 is the touchAll() row.
+create table if not exists user_list_versions (
+    user_id bigint primary key,
+    version bigint not null
+);
@@ -0,0 +1,18 @@
+-- Feed order = last activity. For a coalesced TASK_MESSAGE notification that is its latest message;
+-- for everything else it equals created_at. created_at (the partition key) is never rewritten any more.
+alter table in_app_notifications add column if not exists last_message_at timestamptz;
+update in_app_notifications set last_message_at = created_at where last_message_at is null;
+alter table in_app_notifications alter column last_message_at set not null;
+alter table in_app_notifications alter column last_message_at set default now();
+
+-- feed keyset on (last_message_at desc, id desc), all and unread-only (replace V19/V21's created_at ones)
+create index if not exists idx_notifications_user_last_message
+    on in_app_notifications(user_id, last_message_at desc, id desc)
+    include (type, title, task_id, meeting_id, read_at, message_count);
+
+create index if not exists idx_notifications_unread_last_message
+    on in_app_notifications(user_id, last_message_at desc, id desc)
+    where read_at is null;
+
+drop index if exists idx_notifications_user_created;
+drop index if exists idx_notifications_unread_created;
@@ -0,0 +1,2 @@
+-- List versions are back in memory (UserChangeVersions); other nodes are told over LISTEN/NOTIFY.
+drop table if exists user_list_versions;
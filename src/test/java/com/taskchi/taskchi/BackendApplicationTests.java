@@ -2,8 +2,10 @@ package com.taskchi.taskchi;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 
 @SpringBootTest
+@Import(TestcontainersConfiguration.class)
 class BackendApplicationTests {
 
     @Test
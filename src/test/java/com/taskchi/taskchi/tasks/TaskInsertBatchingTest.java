@@ -0,0 +1,149 @@
+package com.taskchi.taskchi.tasks;
+
+import com.taskchi.taskchi.TestcontainersConfiguration;
+import com.taskchi.taskchi.common.Role;
+import com.taskchi.taskchi.users.User;
+import com.taskchi.taskchi.users.UserRepository;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk create must reach the database as JDBC batches of hibernate.jdbc.batch_size
+ * rows, with ids drawn from the pooled sequence (allocationSize 50) instead of one
+ * nextval per row.
+ */
+@SpringBootTest
+@Import({TestcontainersConfiguration.class, TaskInsertBatchingTest.StatementCounting.class})
+class TaskInsertBatchingTest {
+
+    private static final int BATCH = 50;
+
+    @Autowired TaskRepository tasks;
+    @Autowired UserRepository users;
+    @Autowired TransactionTemplate tx;
+    @Autowired StatementLog log;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = tx.execute(s -> {
+            User u = new User();
+            u.setFullName("Batch Owner");
+            u.setEmail("batch-" + UUID.randomUUID() + "@taskchi.local");
+            u.setPasswordHash("x");
+            u.setRole(Role.STAFF);
+            u.setActive(true);
+            return users.save(u);
+        });
+        // start from an exhausted id block so the sequence count below is exact
+        tx.executeWithoutResult(s -> tasks.save(task(0)));
+        log.clear();
+    }
+
+    @Test
+    void bulkCreateUsesOneBatchAndOneSequenceCallPerFiftyRows() {
+        int n = 120;
+        tx.executeWithoutResult(s -> {
+            List<Task> batch = new ArrayList<>(n);
+            for (int i = 1; i <= n; i++) batch.add(task(i));
+            tasks.saveAll(batch);
+        });
+
+        int batches = (n + BATCH - 1) / BATCH;
+
+        List<ExecutionInfo> inserts = log.matching("insert into tasks ");
+        assertThat(inserts).allMatch(ExecutionInfo::isBatch);
+        assertThat(inserts).hasSize(batches);
+        assertThat(inserts.stream().mapToInt(ExecutionInfo::getBatchSize).sum()).isEqualTo(n);
+
+        // pooled optimizer: the warm-up row leaves at most one block open
+        assertThat(log.matching("nextval('tasks_id_seq')")).hasSizeLessThanOrEqualTo(batches);
+    }
+
+    private Task task(int i) {
+        Task t = new Task();
+        t.setTitle("batch task " + i);
+        t.setStatus(TaskStatus.TODO);
+        t.setPriority(TaskPriority.MEDIUM);
+        t.setDate(LocalDate.now());
+        t.setAssignedTo(owner);
+        t.setCreatedBy(owner);
+        return t;
+    }
+
+    /** Every JDBC execution (one entry per executeBatch) with its SQL text. */
+    static class StatementLog implements QueryExecutionListener {
+        private record Execution(ExecutionInfo info, List<String> sql) {}
+
+        private final List<Execution> executions = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            List<String> sql = queryInfoList.stream()
+                    .map(q -> q.getQuery().toLowerCase(Locale.ROOT))
+                    .toList();
+            executions.add(new Execution(execInfo, sql));
+        }
+
+        void clear() {
+            executions.clear();
+        }
+
+        List<ExecutionInfo> matching(String fragment) {
+            return executions.stream()
+                    .filter(e -> e.sql().stream().anyMatch(q -> q.contains(fragment)))
+                    .map(Execution::info)
+                    .toList();
+        }
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class StatementCounting {
+
+        @Bean
+        StatementLog statementLog() {
+            return new StatementLog();
+        }
+
+        @Bean
+        static BeanPostProcessor countingDataSource(ObjectProvider<StatementLog> log) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource ds)) return bean;
+                    return ProxyDataSourceBuilder.create(ds)
+                            .name("counting")
+                            .listener(log.getObject())
+                            .build();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.taskchi.taskchi.tasks;
+
+import com.taskchi.taskchi.TestcontainersConfiguration;
+import com.taskchi.taskchi.common.Role;
+import com.taskchi.taskchi.users.User;
+import com.taskchi.taskchi.users.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two concurrent close requests: one flips the flag, the other only reads it back.
+ * The counter delta must be applied once.
+ */
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+class TaskRequestCloseConcurrencyTest {
+
+    @Autowired TaskController controller;
+    @Autowired TaskRepository tasks;
+    @Autowired UserRepository users;
+    @Autowired TaskCounters counters;
+    @Autowired TransactionTemplate tx;
+
+    @Test
+    void concurrentRequestsCountTheCloseRequestOnce() throws Exception {
+        User creator = user("creator");
+        User assignee = user("assignee");
+        Long taskId = tx.execute(s -> {
+            Task t = new Task();
+            t.setTitle("close me");
+            t.setStatus(TaskStatus.DOING);
+            t.setPriority(TaskPriority.MEDIUM);
+            t.setDate(LocalDate.now());
+            t.setAssignedTo(assignee);
+            t.setCreatedBy(creator);
+            return tasks.save(t).getId();
+        });
+        counters.rebuild();
+        assertThat(counters.summarize(List.of(assignee.getId())).closeRequested()).isZero();
+
+        Authentication auth = new UsernamePasswordAuthenticationToken(assignee.getEmail(), null, List.of());
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> calls = List.of(
+                    pool.submit(() -> { start.await(); return controller.requestClose(taskId, null, auth); }),
+                    pool.submit(() -> { start.await(); return controller.requestClose(taskId, null, auth); }));
+            start.countDown();
+            for (Future<?> f : calls) f.get();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(tasks.findById(taskId)).get().extracting(Task::isCloseRequested).isEqualTo(true);
+        assertThat(counters.summarize(List.of(assignee.getId())).closeRequested()).isEqualTo(1);
+    }
+
+    private User user(String name) {
+        return tx.execute(s -> {
+            User u = new User();
+            u.setFullName(name);
+            u.setEmail(name + "-" + UUID.randomUUID() + "@taskchi.local");
+            u.setPasswordHash("x");
+            u.setRole(Role.STAFF);
+            u.setActive(true);
+            return users.save(u);
+        });
+    }
+}